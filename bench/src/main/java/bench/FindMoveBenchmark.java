@@ -0,0 +1,73 @@
+package bench;
+
+import engine.Computer;
+import engine.Position;
+import enums.Difficulty;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+//Computer.findMove at every difficulty, over a whole position set per call
+//The expert computer gets a fixed node budget and no book, and the Monte Carlo computer a fixed number of playouts on one
+//thread, and both start every position with empty tables, so a run measures the same work every time
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FindMoveBenchmark {
+
+    @Param({"EASY", "MEDIUM", "HARD", "EXPERT", "MONTE_CARLO"})
+    public Difficulty difficulty;
+
+    @Param({"opening", "midgame", "endgame"})
+    public String set;
+
+    @Param({"20000"})
+    public long expertNodes;
+
+    @Param({"2000"})
+    public long playouts;
+
+    private Position[] positions;
+    private int[] colors;
+    private Computer computer;
+
+    @Setup
+    public void load() throws IOException {
+        colors = new int[PositionSets.size(set)];
+        positions = PositionSets.positions(set, colors);
+        computer = new Computer(Position.WHITE, difficulty);
+        computer.setOpeningBook(null);
+        computer.setRandom(new Random(1));
+        computer.setTimeLimit(0);
+        computer.setNodeLimit(expertNodes);
+        computer.setPlayoutLimit(playouts);
+        computer.setSearchThreads(1);
+        //Small tables, so clearing them between positions doesn't swamp the search itself
+        computer.setHashSize(1);
+    }
+
+    @Benchmark
+    public void findMove(Blackhole bh){
+        for(int i = 0; i < positions.length; i++){
+            if(difficulty == Difficulty.EXPERT || difficulty == Difficulty.MONTE_CARLO)
+                computer.newGame();
+            computer.setColor(colors[i]);
+            bh.consume(computer.findMove(positions[i]));
+        }
+    }
+}
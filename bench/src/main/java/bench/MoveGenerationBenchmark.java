@@ -0,0 +1,89 @@
+package bench;
+
+import engine.Position;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+//The rules the board runs on every turn: finding legal moves (what Board.updateAvailable and the old checkSpot did),
+//working out flips and placing a piece (Board.doTurn and the old flip) and taking it back
+//Each benchmark goes over a whole position set, so scores are per set rather than per position
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGenerationBenchmark {
+
+    @Param({"opening", "midgame", "endgame"})
+    public String set;
+
+    private Position[] positions;
+    private int[] colors;
+
+    @Setup
+    public void load() throws IOException {
+        colors = new int[PositionSets.size(set)];
+        positions = PositionSets.positions(set, colors);
+    }
+
+    //Legal moves for the side to move in every position
+    @Benchmark
+    public void legalMoves(Blackhole bh){
+        for(int i = 0; i < positions.length; i++)
+            bh.consume(positions[i].legalMoves(colors[i]));
+    }
+
+    //Legality of every empty square, one square at a time, the way clicks are checked
+    @Benchmark
+    public void checkEverySquare(Blackhole bh){
+        for(int i = 0; i < positions.length; i++){
+            long empty = ~(positions[i].getBlack() | positions[i].getWhite());
+            while(empty != 0){
+                int square = Long.numberOfTrailingZeros(empty);
+                empty &= empty - 1;
+                bh.consume(positions[i].flipsFor(colors[i], square) != 0);
+            }
+        }
+    }
+
+    //Flips for every legal move in every position
+    @Benchmark
+    public void flips(Blackhole bh){
+        for(int i = 0; i < positions.length; i++){
+            long moves = positions[i].legalMoves(colors[i]);
+            while(moves != 0){
+                bh.consume(positions[i].flipsFor(colors[i], Long.numberOfTrailingZeros(moves)));
+                moves &= moves - 1;
+            }
+        }
+    }
+
+    //Plays and takes back every legal move in every position
+    @Benchmark
+    public void playAndUndo(Blackhole bh){
+        for(int i = 0; i < positions.length; i++){
+            Position p = positions[i];
+            long moves = p.legalMoves(colors[i]);
+            while(moves != 0){
+                int square = Long.numberOfTrailingZeros(moves);
+                moves &= moves - 1;
+                long f = p.play(colors[i], square);
+                bh.consume(p.getBlack());
+                p.undo(colors[i], square, f);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package bench;
+
+import engine.Position;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+//Loads the checked-in position sets, so every commit is measured on exactly the same positions
+//Files are read from bench/positions, or from the directory in the "positions.dir" system property
+final class PositionSets {
+
+    private PositionSets(){}
+
+    private static Path file(String name){
+        return Paths.get(System.getProperty("positions.dir", "positions"), name + ".txt");
+    }
+
+    //Reads one set: each line is a 64 character board and the side to move (X or O)
+    static Position[] positions(String set, int[] colorsOut) throws IOException {
+        List<String> lines = Files.readAllLines(file(set));
+        Position[] positions = new Position[lines.size()];
+        for(int i = 0; i < lines.size(); i++){
+            String line = lines.get(i).trim();
+            positions[i] = Position.parse(line.substring(0, 64));
+            colorsOut[i] = Position.parseColor(line.charAt(65));
+        }
+        return positions;
+    }
+
+    //Number of positions in a set, for sizing the colors array
+    static int size(String set) throws IOException {
+        return Files.readAllLines(file(set)).size();
+    }
+
+    //Reads the full games, each as the list of squares played in order
+    static int[][] games() throws IOException {
+        List<String> lines = Files.readAllLines(file("games"));
+        List<int[]> games = new ArrayList<>();
+        for(String line : lines){
+            line = line.trim();
+            int[] game = new int[line.length() / 2];
+            for(int i = 0; i < game.length; i++)
+                game[i] = (line.charAt(2 * i + 1) - '1') * 8 + (line.charAt(2 * i) - 'a');
+            games.add(game);
+        }
+        return games.toArray(new int[0][]);
+    }
+}
@@ -0,0 +1,66 @@
+package bench;
+
+import engine.Game;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+//Taking back whole games through Game and its MoveHistory, the same calls the board's undo, redo and move list make
+//Every checked-in game is played to the end first, then each benchmark leaves it back at the end for the next call
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UndoBenchmark {
+
+    private Game[] games;
+
+    @Setup
+    public void load() throws IOException {
+        int[][] moves = PositionSets.games();
+        games = new Game[moves.length];
+        for(int g = 0; g < moves.length; g++){
+            Game game = new Game();
+            for(int square : moves[g]){
+                //Passes aren't written in the game list, so the side with no move just gives up its turn
+                if(game.mustPass())
+                    game.pass();
+                game.play(square);
+            }
+            games[g] = game;
+        }
+    }
+
+    //Undoes every move of every game one at a time, then redoes them all, like pressing undo and redo over and over
+    @Benchmark
+    public void undoWholeGames(Blackhole bh){
+        for(Game game : games){
+            while(game.undo());
+            bh.consume(game.discs(Game.BLACK));
+            while(game.redo());
+        }
+    }
+
+    //Jumps straight to the start of every game and back to the end, like picking a move in the move list
+    @Benchmark
+    public void jumpToStart(Blackhole bh){
+        for(Game game : games){
+            int end = game.getHistory().size();
+            game.goTo(0);
+            bh.consume(game.discs(Game.BLACK));
+            game.goTo(end);
+        }
+    }
+}
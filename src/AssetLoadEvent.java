@@ -0,0 +1,26 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+//Flight recorder event for reading one image from disk and converting it for the screen
+@Name("othello.AssetLoad")
+@Label("Asset Load")
+@Category({"Othello", "Window"})
+@Description("An image read from the assets folder")
+public class AssetLoadEvent extends Event {
+
+    @Label("Name")
+    String name;
+
+    @Label("Width")
+    int width;
+
+    @Label("Height")
+    int height;
+
+    @Label("Loaded")
+    @Description("False if the image couldn't be read")
+    boolean loaded;
+}
@@ -0,0 +1,83 @@
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+//Every image the game draws, read from disk once for the whole program and kept ready to draw
+//Runner starts loading them all in the background as soon as the home screen is up, so starting a game doesn't have to wait on the disk
+public class Assets {
+
+    //Everything in the assets folder that gets drawn
+    private static final String[] IMAGES = {
+            "Board.png", "gameOverBoard.png", "BlackPiece.png", "WhitePiece.png", "mostRecentBlackPiece.png",
+            "mostRecentWhitePiece.png", "possPiece.png", "settings.png", "undo.png", "restart.png",
+            "onToggle.png", "offToggle.png", "disabledToggle.png"
+    };
+
+    //Each image as it's loading or once it's loaded, by file name
+    private static final Map<String, CompletableFuture<BufferedImage>> images = new ConcurrentHashMap<>();
+    //Loads images in parallel, daemon threads so they never keep the program open
+    private static final ExecutorService loader = Executors.newFixedThreadPool(
+            Math.min(IMAGES.length, Math.max(1, Runtime.getRuntime().availableProcessors())), r -> {
+                Thread t = new Thread(r, "Othello assets");
+                t.setDaemon(true);
+                return t;
+            });
+
+    private Assets(){}
+
+    //Starts loading every image in the background. Safe to call more than once
+    public static void preload(){
+        for(String name : IMAGES)
+            load(name);
+    }
+
+    //Gives the image with the given file name, waiting for it if it's still loading (null if it couldn't be read)
+    public static BufferedImage image(String name){
+        return load(name).join();
+    }
+
+    private static CompletableFuture<BufferedImage> load(String name){
+        return images.computeIfAbsent(name, n -> CompletableFuture.supplyAsync(() -> read(n), loader));
+    }
+
+    //Reads the image from the assets folder and converts it to the screen's own format, so drawing it is just a copy
+    //Each one shows up in a flight recording as an asset load event, if a recording is running
+    private static BufferedImage read(String name){
+        AssetLoadEvent event = new AssetLoadEvent();
+        event.begin();
+        BufferedImage image = decode(name);
+        if(event.shouldCommit()){
+            event.name = name;
+            event.loaded = image != null;
+            event.width = image != null ? image.getWidth() : 0;
+            event.height = image != null ? image.getHeight() : 0;
+            event.commit();
+        }
+        return image;
+    }
+
+    private static BufferedImage decode(String name){
+        BufferedImage decoded;
+        try {
+            decoded = ImageIO.read(new File("assets/" + name));
+        } catch (IOException e){
+            System.out.println("The necessary images for this game could not be loaded.");
+            return null;
+        }
+        if(decoded == null || GraphicsEnvironment.isHeadless())
+            return decoded;
+        GraphicsConfiguration config = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+        BufferedImage compatible = config.createCompatibleImage(decoded.getWidth(), decoded.getHeight(), decoded.getTransparency());
+        Graphics2D g = compatible.createGraphics();
+        g.drawImage(decoded, 0, 0, null);
+        g.dispose();
+        return compatible;
+    }
+}
@@ -1,37 +1,38 @@
 import enums.Difficulty;
 import enums.Mode;
-import javax.imageio.ImageIO;
-import javax.sound.sampled.AudioSystem;
-import javax.sound.sampled.Clip;
+import engine.Computer;
+import engine.GameRecord;
+import engine.Game;
+import engine.GameClock;
+import engine.GameRecordWriter;
+import engine.MoveHistory;
+import engine.Position;
+import engine.Spot;
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Paths;
-import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.Deque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Board extends JPanel {
 
-    //-1 is black, 0 is nothing, 1 is white
-    private int[][] board = new int[8][8];
-    //Stores most recent move, starts invalid as no moves yet
-    private int[] mostRecentPlay = new int[]{-1, -1};
-    //Stores move before last move, for use in keeping move history, starts invalid for same reason
-    private int[] twoMovesAgo = new int[]{-1, -1};
+    //The rules of the game: the discs on the board, whose turn it is and every move made so far
+    private final Game game = new Game();
+    //Stores most recent move as a square index (r * 8 + c), starts invalid as no moves yet
+    private int mostRecentPlay = -1;
     private Board instance; //Used for message dialogs
     //Tells whether to register clicks or not
     //True if board is shown, false if settings is shown
     private boolean inFocus = true;
 
-    //Holds a history of every single move made, for use in undoing a previous move
-    private Deque<Move> stack = new ArrayDeque<Move>();
-    //Stores the pieces flipped by the current move, for use in creating moves for the stack
-    private ArrayList<Spot> flippedPieces = new ArrayList<Spot>();
 
     //Determines whether to show available moves for each color after three failed attempts to play
     private boolean showMovesBlack = true;
@@ -56,55 +57,85 @@ public class Board extends JPanel {
     //Color constants to make code more readable
     private final int BLACK = -1;
     private final int WHITE = 1;
-    private int player = WHITE; //Current player
     //Stores number of failed attempts by current player to place a piece
     private int currentPlayerTries = 0;
 
     private boolean gameOver = false;//Used to determine when the game should end and tally pieces
-    private int[] totalPieces = new int[]{0,0}; //Keeps a running total of black (index 0) and white(index 1)
 
     //Holds the possible squares that the black/white player respectively could play their next move.
-    private ArrayList<Spot> possibleSquaresWhite = new ArrayList<>();
-    private ArrayList<Spot> possibleSquaresBlack = new ArrayList<>();
-    //Used to scan all surrounding locations around a particular square
-    private int[] dr = { 0, 0, -1, 1, -1, 1, -1,  1};
-    private int[] dc = {-1, 1,  0, 0, -1, 1,  1, -1};
-
+    //One bit per square (r * 8 + c), so finding them never creates any objects
+    private long possibleSquaresWhite = 0;
+    private long possibleSquaresBlack = 0;
     //Reads mouse clicks
     private MouseListener listener;
 
+    //Finished games are saved to this game record file if the program is started with -Dothello.record=<file>
+    private static final String RECORD_PATH = System.getProperty("othello.record");
+    private static GameRecordWriter recorder;
+
+    //Both players' clocks, set with -Dothello.clock=<total+increment> or <time/move> in milliseconds (like 300000+5000 or 5000/move)
+    //Without a time control the clocks just show how long each side has taken
+    private static final String CLOCK_CONTROL = System.getProperty("othello.clock");
+    private final GameClock clock = GameClock.parse(CLOCK_CONTROL);
+    //Color that ran out of time and lost, 0 if nobody has
+    private int flagged = 0;
+    //Checks the clocks a few times a second while the board is showing, to update them and see if anyone ran out of time
+    private final Timer clockTimer = new Timer(100, e -> tickClock());
+
+    //Made once, every piece of text on the board uses it
+    private static final Font FONT = new Font("Book Antiqua", Font.PLAIN, 35);
+    private static final Font CLOCK_FONT = new Font("Book Antiqua", Font.PLAIN, 28);
+    //The board with its icons drawn ahead of time, one for during the game and one for after
+    private BufferedImage playingLayer;
+    private BufferedImage gameOverLayer;
+    //What was on screen after the last refresh(), compared against to find what needs drawing again
+    private long drawnBlack, drawnWhite, drawnHints;
+    private int drawnRecent = -1;
+    private boolean drawnGameOver = false;
+    private String drawnTurn = "", drawnCount = "", drawnClock = "";
+
+    //Every computer move is worked out on this one thread, which lives as long as the program does
+    //It's a daemon thread, so it never keeps the program open after the window closes
+    private static final ScheduledExecutorService ENGINE = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "Othello computer");
+        t.setDaemon(true);
+        return t;
+    });
+    //Goes up every time the game changes under a computer that's thinking (undo, redo, restart), so its answer gets thrown away
+    private final AtomicInteger computerGeneration = new AtomicInteger();
+    //Shortest time between asking the computer for a move and showing it, so you can see it play. Thinking time counts towards it
+    //Set with -Dothello.delay=<milliseconds>, 1000 if not given
+    private static final long COMPUTER_DELAY = Long.getLong("othello.delay", 1000);
+    //Whether the expert computer thinks on the player's time, turned off with -Dothello.ponder=false
+    private static final boolean PONDER = Boolean.parseBoolean(System.getProperty("othello.ponder", "true"));
+
     public Board(Runner runner, Mode m, Difficulty d, int computerColor){
         instance = this;
         mode = m;
         //If PVC, we create a computer. If PVP, computer is always null and
         //not referenced elsewhere (for fear of NullPointerException)
-        if(m == Mode.PVC)
-            c = new Computer(this, computerColor, d);
+        if(m == Mode.PVC){
+            c = new Computer(computerColor, d);
+            //The expert computer thinks about its next move while the player thinks about theirs
+            c.setPondering(PONDER);
+        }
         //Sets up board panel, behind where board image will be drawn
         setBackground(Color.WHITE);
         setLayout(null);
         setFocusable(true);
-        //Tries to load all images needed for the game
-        try {
-            boardImage = ImageIO.read(new File("assets/Board.png"));
-            gameOverBoardImage = ImageIO.read(new File("assets/gameOverBoard.png"));
-            blackPiece = ImageIO.read(new File("assets/BlackPiece.png"));
-            whitePiece = ImageIO.read(new File("assets/WhitePiece.png"));
-            mostRecentBlackPiece = ImageIO.read(new File("assets/mostRecentBlackPiece.png"));
-            mostRecentWhitePiece = ImageIO.read(new File("assets/mostRecentWhitePiece.png"));
-            possPiece = ImageIO.read(new File("assets/possPiece.png"));
-            settings = ImageIO.read(new File("assets/settings.png"));
-            undo = ImageIO.read(new File("assets/undo.png"));
-            restart = ImageIO.read(new File("assets/restart.png"));
-        } catch (IOException e){
-            System.out.println("The necessary images for this game could not be loaded.");
-        }
-
-        //Sets up initial status of the board
-        board[3][3] = -1;
-        board[4][4] = -1;
-        board[3][4] = 1;
-        board[4][3] = 1;
+        //Gets all images needed for the game, already loaded in the background while the home screen was up
+        boardImage = Assets.image("Board.png");
+        gameOverBoardImage = Assets.image("gameOverBoard.png");
+        blackPiece = Assets.image("BlackPiece.png");
+        whitePiece = Assets.image("WhitePiece.png");
+        mostRecentBlackPiece = Assets.image("mostRecentBlackPiece.png");
+        mostRecentWhitePiece = Assets.image("mostRecentWhitePiece.png");
+        possPiece = Assets.image("possPiece.png");
+        settings = Assets.image("settings.png");
+        undo = Assets.image("undo.png");
+        restart = Assets.image("restart.png");
+
+        //Initial status of the board (middle four pieces) is set up when the position is created
         //Sets initial available moves for the first player to move, be it a computer or a player
         updateAvailable();
         //Tracks clicks on the board and applies game changes based on where the click is
@@ -117,84 +148,52 @@ public class Board extends JPanel {
                     //If the settings panel is showing, ignore this click
                     if(!inFocus)
                         return;
-                    //Currently waiting for computer move, don't do anything
-                    if(mode == Mode.PVC && player == c.getColor())
-                        return;
                     //Locates the click
                     int x = e.getX();
                     int y = e.getY();
                     //If the click is on the settings icon, goes to the settings panel
                     if(x >= 790 && x <= 870 && y >= 0 && y <= 80) {
                         runner.goToSettings();
-                    } else if(x >= 10 && x <= 80 && y >= 797 && y <= 867){ //Clicked the undo button
+                    } else if(x >= 10 && x <= 80 && y >= 797 && y <= 867){ //Clicked the undo button (this also works while the computer thinks)
                         undo();
                     } else if(x >= 97 && x <= 167 && y >= 797 && y <= 867){ //Clicked the reset button
                         restart();
+                    } else if(mode == Mode.PVC && game.getToMove() == c.getColor()){
+                        //Currently waiting for computer move, don't do anything
+                        return;
                     } else { //If the click is anywhere else,
                         //Adds to attempts for current player and tries to play where the click was
                         currentPlayerTries++;
                         boolean result = tryMove(x, y);
                         //If the move was a success
                         if(result) {
-                            //Log the successful move
-                            stack.push(new Move(player, mostRecentPlay, flippedPieces, twoMovesAgo));
-                            //Sets up for next player
+                            //The player's clock stops and they get their increment
+                            clock.press();
+                            //Sets up for next player (playing the move already handed them the turn)
                             currentPlayerTries = 0;
-                            swapPlayers();
-                            //If the next player is a computer
+                            //If the next player is a computer, it works out its move on the engine thread and plays it when it's done
                             if(mode == Mode.PVC){
-                                //Computer finds move based on its current difficulty
-                                final Spot computerMove = c.findMove();
-                                //If there is no available move for the computer
-                                if(computerMove == null){
-                                    //Goes back to player's turn
-                                    swapPlayers();
-                                    updateAvailable();
-                                    //If the player can't move either, game is over
-                                    if((player == BLACK && possibleSquaresBlack.isEmpty()) || (player == WHITE && possibleSquaresWhite.isEmpty())){
-                                        endGame();
-                                    } else {
-                                        //Tells player what happened and that it's their turn again.
-                                        //Here and a few other times I call repaint earlier than the auto call at the end, this is because when we bring up a dialog,
-                                        //it makes more sense to show the person the new board after the move so they can see that indeed, there are no available moves
-                                        //If we call it at the end, the dialog shows, but the board hasn't updated and that's confusing
-                                        repaint();
-                                        JOptionPane.showMessageDialog(instance, "The computer doesn't have an available move! Your turn again.", "No Moves Available!", JOptionPane.ERROR_MESSAGE);
-                                    }
-                                } else {
-                                    playComputerMove(computerMove);
-                                }
+                                requestComputerMove();
                             } else { //Means that mode is PVP
                                 //Updates available locations for next player
                                 updateAvailable();
-                                int openSquares = countEmpty();
-                                //If there is nowhere for the next player to go, end the game
-                                if(openSquares == 0)
+                                //If neither player can go (including when the board is full), end the game
+                                if(game.isOver()){
                                     endGame();
                                 //If next player can't play, turn goes back to previous player.
-                                //If they too can't play, end the game
-                                if (player == WHITE && possibleSquaresWhite.isEmpty()) {
-                                    player = BLACK;
+                                } else if(game.mustPass()){
+                                    String skipped = game.getToMove() == WHITE ? "white" : "black";
+                                    String again = game.getToMove() == WHITE ? "Black" : "White";
+                                    game.pass();
                                     updateAvailable();
-                                    if(possibleSquaresBlack.isEmpty()){
-                                        endGame();
-                                    } else {
-                                        repaint();
-                                        JOptionPane.showMessageDialog(instance, "The white player doesn't have an available move! Black's turn again.", "No Moves Available!", JOptionPane.ERROR_MESSAGE);
-                                    }
-                                } else if (player == BLACK && possibleSquaresBlack.isEmpty()) {
-                                    player = WHITE;
-                                    updateAvailable();
-                                    if(possibleSquaresWhite.isEmpty()){
-                                        endGame();
-                                    } else {
-                                        repaint();
-                                        JOptionPane.showMessageDialog(instance, "The black player doesn't have an available move! White's turn again.", "No Moves Available!", JOptionPane.ERROR_MESSAGE);
-                                    }
+                                    refresh();
+                                    JOptionPane.showMessageDialog(instance, "The " + skipped + " player doesn't have an available move! " + again + "'s turn again.", "No Moves Available!", JOptionPane.ERROR_MESSAGE);
                                 }
                             }
+                            //Starts the clock of whoever goes next, unless the computer already did
+                            startClock();
                             //Apply changes to the board
-                            repaint();
+                            refresh();
                         }
                     }
                 }
@@ -210,145 +209,405 @@ public class Board extends JPanel {
             public void mouseExited(MouseEvent e) {}
         };
         addMouseListener(listener); //Activates listener for the board
+        //Ctrl+Z and Ctrl+Y undo and redo moves, same as the undo button
+        getInputMap(WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(KeyEvent.VK_Z, InputEvent.CTRL_DOWN_MASK), "undo");
+        getInputMap(WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(KeyEvent.VK_Y, InputEvent.CTRL_DOWN_MASK), "redo");
+        getActionMap().put("undo", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if(canTakeBackMoves())
+                    undo();
+            }
+        });
+        getActionMap().put("redo", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if(canTakeBackMoves())
+                    redo();
+            }
+        });
+        //White's clock starts as soon as the board is up
+        startClock();
         //If the computer has the first turn, have them play once before handing off to the player
-        if(mode == Mode.PVC && player == c.getColor()){
-            //Set their move for one second later after construction of things
-            new java.util.Timer().schedule(
-                    new java.util.TimerTask() {
-                        @Override
-                        public void run() {
-                            Spot computerMove = c.findMove();
-                            doTurn(computerMove.r, computerMove.c);
-                            swapPlayers();
-                            updateAvailable();
-                            repaint(); //Here we have to repaint since it doesn't update the board otherwise
-                            cancel(); //Ends the thread
-                        }
-                    },
-                    1000
-            );
-        }
+        if(mode == Mode.PVC && game.getToMove() == c.getColor())
+            requestComputerMove();
+    }
+
+    //Starts the computer thinking about its move on the engine thread. Must be called on the Swing thread
+    //The move is handed back to the Swing thread once it's found and the presentation delay has passed
+    //On a clock, the computer thinks for as long as the clock's time manager gives it, and only its thinking is charged to it
+    private void requestComputerMove(){
+        final int generation = computerGeneration.get();
+        //A cancel that comes before the engine thread gets to this still stops it
+        final int stops = c.getStops();
+        final Position thinkingAbout = getPositionCopy();
+        final long start = System.nanoTime();
+        startClock();
+        ENGINE.execute(() -> {
+            //The game may have moved on while this was waiting its turn
+            if(generation != computerGeneration.get())
+                return;
+            long slice = clock.isTimed() ? Math.max(1, clock.moveTime(c.getColor(), thinkingAbout.countEmpty())) : 0;
+            Spot computerMove = c.findMove(thinkingAbout, slice, stops);
+            long thoughtUntil = System.nanoTime();
+            //The computer's clock stops the moment it's done thinking, so the delay before the move is shown isn't its time
+            //Checked and pressed while holding the clock, so an undo or restart can't start the next clock in between
+            synchronized(clock){
+                if(generation == computerGeneration.get())
+                    clock.press(thoughtUntil);
+            }
+            long thought = TimeUnit.NANOSECONDS.toMillis(thoughtUntil - start);
+            //Waiting out the rest of the delay doesn't hold up the engine thread
+            ENGINE.schedule(() -> SwingUtilities.invokeLater(() -> {
+                //Thrown away if the board was undone or restarted while the computer was thinking
+                if(generation == computerGeneration.get())
+                    playComputerMove(computerMove);
+            }), Math.max(0, COMPUTER_DELAY - thought), TimeUnit.MILLISECONDS);
+        });
+    }
+
+    //Throws away any move the computer is working on, and tells it to stop thinking about it
+    private void cancelComputerMove(){
+        computerGeneration.incrementAndGet();
+        if(c != null)
+            c.stop();
     }
 
     //Does the act of playing the move found and, updating the game state for after the move is made
+    //Runs on the Swing thread, so nothing here races with painting
+    //The computer's clock was already stopped on the engine thread when it finished thinking, so nobody's clock ran while
+    //the move waited to be shown
     private void playComputerMove(Spot computerMove){
-        //Give 1 second delay for computer so you can see it play
-        new java.util.Timer().schedule(
-                new java.util.TimerTask() {
-                    @Override
-                    public void run() {
-                        //Plays the move after a 1 second delay, then swaps to the player and updates their available moves
-                        doTurn(computerMove.r, computerMove.c);
-                        //Log the computer's move
-                        stack.push(new Move(player, mostRecentPlay, flippedPieces, twoMovesAgo));
-                        swapPlayers();
-                        updateAvailable();
-                        //If the computer played on the last open spot on the board, end the game
-                        if(countEmpty() == 0){
-                            endGame();
-                        //If the player has nowhere to go,
-                        } else if((player == BLACK && possibleSquaresBlack.isEmpty()) || (player == WHITE && possibleSquaresWhite.isEmpty())){
-                            //Player can't move, send back to computer
-                            swapPlayers();
-                            Spot nextComputerMove = c.findMove();
-                            //If the computer also can't move, end the game
-                            if(nextComputerMove == null){
-                                endGame();
-                            //Otherwise, update the board before telling the user what happened, then let the computer go again
-                            } else {
-                                repaint();
-                                JOptionPane.showMessageDialog(instance, "You don't have an available move! The computer gets another turn.", "No Moves Available!", JOptionPane.ERROR_MESSAGE);
-                                playComputerMove(nextComputerMove);
-                            }
-                        } //Else its the player's turn, so we'll wait for their move
-                        repaint(); //Have to repaint since auto-call below triggers before this
-                        cancel(); //Ends the thread
-                    }
-                },
-                1000
-        );
+        if(gameOver)
+            return;
+        //A computer that thought past the end of its time has lost. Only its thinking counts, its clock is stopped now
+        if(clock.isFlagged(c.getColor())){
+            flagged = c.getColor();
+            endGame();
+            return;
+        }
+        //If there is no available move for the computer
+        if(computerMove == null){
+            //If the player can't move either, game is over
+            if(game.isOver()){
+                endGame();
+            } else {
+                //Goes back to player's turn
+                game.pass();
+                startClock();
+                updateAvailable();
+                //Tells player what happened and that it's their turn again.
+                //Here and a few other times I call repaint earlier than the auto call at the end, this is because when we bring up a dialog,
+                //it makes more sense to show the person the new board after the move so they can see that indeed, there are no available moves
+                //If we call it at the end, the dialog shows, but the board hasn't updated and that's confusing
+                refresh();
+                JOptionPane.showMessageDialog(instance, "The computer doesn't have an available move! Your turn again.", "No Moves Available!", JOptionPane.ERROR_MESSAGE);
+            }
+            return;
+        }
+        //Plays the move, which hands the turn to the player, and updates their available moves
+        doTurn(computerMove.r, computerMove.c);
+        updateAvailable();
+        //If neither side can move (the computer may have played on the last open spot), end the game
+        if(game.isOver()){
+            endGame();
+        //If the player has nowhere to go, send it back to the computer
+        } else if(game.mustPass()){
+            game.pass();
+            //Update the board before telling the user what happened, then let the computer go again
+            refresh();
+            JOptionPane.showMessageDialog(instance, "You don't have an available move! The computer gets another turn.", "No Moves Available!", JOptionPane.ERROR_MESSAGE);
+            requestComputerMove();
+        } else {
+            //It's the player's turn, so we'll wait for their move, and the computer can start pondering its answer
+            startClock();
+            final Position thinkingAbout = getPositionCopy();
+            ENGINE.execute(() -> c.ponder(thinkingAbout));
+        }
+        refresh();
+    }
+
+    //Runs the clock of whoever's turn it is, charging whoever's clock was running until now
+    private void startClock(){
+        if(!gameOver && clock.getRunning() != game.getToMove())
+            clock.start(game.getToMove());
+    }
+
+    //Called by the clock timer: ends the game if the player to move has run out of time, otherwise redraws the clocks if they changed
+    private void tickClock(){
+        if(gameOver)
+            return;
+        //Only the player whose clock is running can run out. While a computer move waits out the delay nobody's clock runs,
+        //and playComputerMove checks the computer's thinking time itself
+        if(clock.getRunning() == game.getToMove() && clock.isFlagged(game.getToMove())){
+            flagged = game.getToMove();
+            cancelComputerMove();
+            endGame();
+            return;
+        }
+        refresh();
+    }
+
+    //The clock timer only runs while the board is in the window
+    @Override
+    public void addNotify(){
+        super.addNotify();
+        clockTimer.start();
+    }
+
+    @Override
+    public void removeNotify(){
+        clockTimer.stop();
+        super.removeNotify();
     }
 
     @Override
     public void paintComponent(Graphics g){
+        //Each paint shows up in a flight recording, if one is running, to tell slow paints apart from slow moves
+        BoardPaintEvent event = new BoardPaintEvent();
+        event.begin();
         super.paintComponent(g);
-        requestFocusInWindow();
-        g.setFont(new Font("Book Antiqua", Font.PLAIN, 35));
-        //If the game is over, draw a yellow board to signify a obvious change in game state to players
-        //Otherwise, draw normal green board
-        g.drawImage(gameOver ? gameOverBoardImage : boardImage, 0, 0, null);
-
-        //Draws all pieces on the board currently
-        for(int r = 0; r < 8; r++){
-            for(int c = 0; c < 8; c++){
-                int dx = 80 + 80 * c + 10 * c;
-                int dy = 80 + 80 * r + 10 * r;
-                //If this piece is the most recently played piece, draw special piece with border to show that
-                //Otherwise, draw whatever colored piece it is
-                if(mostRecentPlay[0] == r && mostRecentPlay[1] == c)
-                    g.drawImage(board[r][c] == -1 ? mostRecentBlackPiece : mostRecentWhitePiece, dx, dy, null);
-                else if(board[r][c] == -1)
-                    g.drawImage(blackPiece, dx, dy, null);
-                else if(board[r][c] == 1)
-                    g.drawImage(whitePiece, dx, dy, null);
+        g.setFont(FONT);
+        //Only squares inside the area being repainted are drawn, most repaints only cover the squares that changed
+        Rectangle area = g.getClipBounds();
+        if(area == null)
+            area = new Rectangle(0, 0, getWidth(), getHeight());
+        try {
+            paintBoard(g, area);
+        } finally {
+            if(event.shouldCommit()){
+                event.x = area.x;
+                event.y = area.y;
+                event.width = area.width;
+                event.height = area.height;
+                event.squares = Long.bitCount(squaresIn(area));
+                event.pieces = Long.bitCount((game.discs(BLACK) | game.discs(WHITE)) & squaresIn(area));
+                event.gameOver = gameOver;
+                event.commit();
             }
         }
+    }
+
+    //Draws everything inside the given area
+    private void paintBoard(Graphics g, Rectangle area){
+        //The board and icons never change during a game, so they come from one image drawn ahead of time
+        g.drawImage(staticLayer(), 0, 0, null);
+        long visible = squaresIn(area);
+
+        //Draws all pieces in the area
+        long pieces = (game.discs(BLACK) | game.discs(WHITE)) & visible;
+        while(pieces != 0){
+            int square = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            //If this piece is the most recently played piece, draw special piece with border to show that
+            //Otherwise, draw whatever colored piece it is
+            int piece = game.get(square / 8, square % 8);
+            if(mostRecentPlay == square)
+                g.drawImage(piece == -1 ? mostRecentBlackPiece : mostRecentWhitePiece, squareX(square), squareY(square), null);
+            else
+                g.drawImage(piece == -1 ? blackPiece : whitePiece, squareX(square), squareY(square), null);
+        }
         //If the game is over, draw some additional stuff
         if(gameOver){
             g.setColor(Color.BLACK);
             //Draws text to say why the game ended, how many pieces each side has, and who won
-            g.drawString((countEmpty() == 0 ? "No more open spaces!" : "No player can move!") + " Game Over!", 10, 45);
-            g.drawString("Black: " + totalPieces[0] + " pieces", 10, 840);
-            g.drawString("White: " + totalPieces[1] + " pieces", 280, 840);
-            if(totalPieces[0] > totalPieces[1]) //Black wins
+            if(flagged != 0)
+                g.drawString((flagged == BLACK ? "Black" : "White") + " ran out of time! Game Over!", 10, 45);
+            else
+                g.drawString((countEmpty() == 0 ? "No more open spaces!" : "No player can move!") + " Game Over!", 10, 45);
+            int blackPieces = game.count(BLACK);
+            int whitePieces = game.count(WHITE);
+            g.drawString("Black: " + blackPieces + " pieces", 10, 840);
+            g.drawString("White: " + whitePieces + " pieces", 280, 840);
+            //Running out of time loses no matter how many pieces are on the board
+            if(flagged != 0)
+                g.drawString(flagged == BLACK ? "White Wins!" : "Black Wins!", 660, 840);
+            else if(blackPieces > whitePieces) //Black wins
                 g.drawString("Black Wins!", 660, 840);
-            else if(totalPieces[0] < totalPieces[1]) //White wins
+            else if(blackPieces < whitePieces) //White wins
                 g.drawString("White Wins!", 660, 840);
             else //Tie
                 g.drawString("Tie Game!", 660, 840);
-            removeMouseListener(listener); //Remove the mouse listener so that game stops
             return; //Ends the drawing now
         }
         //If the current player has already tried moving three times unsuccessfully, draw available locations to play in yellow
-        if(currentPlayerTries >= 3 && ((player == BLACK && showMovesBlack) || (player == WHITE && showMovesWhite))){
-            ArrayList<Spot> currentPoss = player == BLACK ? possibleSquaresBlack : possibleSquaresWhite;
-            for(Spot s : currentPoss){
-                int r = s.r;
-                int c = s.c;
-                int dx = 80 + 80 * c + 10 * c;
-                int dy = 80 + 80 * r + 10 * r;
-                g.drawImage(possPiece, dx, dy, null);
-            }
+        long hints = hintSquares() & visible;
+        while(hints != 0){
+            int square = Long.numberOfTrailingZeros(hints);
+            hints &= hints - 1;
+            g.drawImage(possPiece, squareX(square), squareY(square), null);
+        }
+        //Draws whose turn it is, and the running total of each color (the position keeps these counted as moves are made and undone)
+        g.drawString(turnText(), 15, 45);
+        g.drawString(countText(), 650, 840);
+        //Both clocks, between the undo and restart buttons and the count
+        g.setFont(CLOCK_FONT);
+        g.drawString(clockText(), 190, 840);
+    }
+
+    //Asks for a repaint of only what changed since the last time this was called
+    //Swing puts every request made before the next paint together, so a move and its flips are drawn in one go
+    private void refresh(){
+        if(gameOver != drawnGameOver){
+            //Everything looks different at the end of the game
+            drawnGameOver = gameOver;
+            repaint();
+        }
+        long hints = gameOver ? 0 : hintSquares();
+        long changed = (game.discs(BLACK) ^ drawnBlack) | (game.discs(WHITE) ^ drawnWhite) | (hints ^ drawnHints);
+        if(mostRecentPlay != drawnRecent){
+            if(drawnRecent >= 0) changed |= 1L << drawnRecent;
+            if(mostRecentPlay >= 0) changed |= 1L << mostRecentPlay;
+        }
+        drawnBlack = game.discs(BLACK);
+        drawnWhite = game.discs(WHITE);
+        drawnHints = hints;
+        drawnRecent = mostRecentPlay;
+        while(changed != 0){
+            int square = Long.numberOfTrailingZeros(changed);
+            changed &= changed - 1;
+            repaint(squareX(square), squareY(square), 80, 80);
+        }
+        String turn = turnText();
+        if(!turn.equals(drawnTurn)){
+            drawnTurn = turn;
+            repaint(0, 0, 790, 80);
         }
-        totalPieces = countPieces(); //Update piece counts before drawing how many each side has
-        //Draws whose turn it is
-        g.drawString((mode == Mode.PVC && player == c.getColor() ? "Computer's Turn" : (player == BLACK ? "Black" : "White") + " Player's Turn"), 15, 45);
-        //Draws running total of each color
-        g.drawString("B: " + totalPieces[0] + "   W: " + totalPieces[1], 650, 840);
-        //Draws icons
-        g.drawImage(settings, 790, 0, null);
-        g.drawImage(settings, 790, 0, null);
-        g.drawImage(undo, 10, 797, null);
-        g.drawImage(restart, 97, 797, null);
-    }
-
-    //Gives a COPY of the board to the caller (the computer class), not actual board reference
-    public int[][] getBoardCopy(){
-        int[][] copy = new int[8][8];
-
-        for(int r = 0; r < 8; r++){
-            for(int c = 0; c < 8; c++)
-                copy[r][c] = board[r][c];
+        String count = countText();
+        if(!count.equals(drawnCount)){
+            drawnCount = count;
+            repaint(640, 797, 240, 83);
         }
+        String clockShown = gameOver ? "" : clockText();
+        if(!clockShown.equals(drawnClock)){
+            drawnClock = clockShown;
+            repaint(180, 797, 460, 83);
+        }
+    }
+
+    //Board and icons, drawn once and then copied onto the screen for every repaint
+    private BufferedImage staticLayer(){
+        BufferedImage layer = gameOver ? gameOverLayer : playingLayer;
+        if(layer != null)
+            return layer;
+        //Same size as the board picture, which covers everything but the panel's plain background
+        int width = boardImage != null ? boardImage.getWidth() : 880;
+        int height = boardImage != null ? boardImage.getHeight() : 880;
+        GraphicsConfiguration config = getGraphicsConfiguration();
+        layer = config != null ? config.createCompatibleImage(width, height) : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = layer.createGraphics();
+        g.setColor(getBackground());
+        g.fillRect(0, 0, layer.getWidth(), layer.getHeight());
+        //If the game is over, draw a yellow board to signify a obvious change in game state to players
+        //Otherwise, draw normal green board with the icons
+        if(gameOver){
+            g.drawImage(gameOverBoardImage, 0, 0, null);
+            gameOverLayer = layer;
+        } else {
+            g.drawImage(boardImage, 0, 0, null);
+            g.drawImage(settings, 790, 0, null);
+            g.drawImage(undo, 10, 797, null);
+            g.drawImage(restart, 97, 797, null);
+            playingLayer = layer;
+        }
+        g.dispose();
+        return layer;
+    }
 
-        return copy;
+    //Squares available to play that are highlighted in yellow, once the current player has tried three times unsuccessfully
+    private long hintSquares(){
+        if(currentPlayerTries >= 3 && ((game.getToMove() == BLACK && showMovesBlack) || (game.getToMove() == WHITE && showMovesWhite)))
+            return game.getToMove() == BLACK ? possibleSquaresBlack : possibleSquaresWhite;
+        return 0;
     }
 
-    //Ends the game, counts up pieces, and redraws board with end of game stuff on it
+    private String turnText(){
+        return mode == Mode.PVC && game.getToMove() == c.getColor() ? "Computer's Turn" : (game.getToMove() == BLACK ? "Black" : "White") + " Player's Turn";
+    }
+
+    private String countText(){
+        return "B: " + game.count(BLACK) + "   W: " + game.count(WHITE);
+    }
+
+    //Time each side has left, or without a time control, how long each has taken
+    private String clockText(){
+        if(!clock.isTimed())
+            return "Black " + formatTime(clock.used(BLACK)) + "   White " + formatTime(clock.used(WHITE));
+        return "Black " + formatTime(clock.remaining(BLACK)) + "   White " + formatTime(clock.remaining(WHITE));
+    }
+
+    //Minutes and seconds, with tenths once there are less than ten seconds left
+    private static String formatTime(long millis){
+        millis = Math.max(0, millis);
+        if(millis < 10000)
+            return (millis / 1000) + "." + (millis / 100 % 10);
+        long seconds = millis / 1000;
+        return (seconds / 60) + ":" + (seconds % 60 < 10 ? "0" : "") + (seconds % 60);
+    }
+
+    //Pixel position of a square's top left corner, each square is 80 pixels with a 10 pixel line between
+    private static int squareX(int square){
+        return 80 + 90 * (square % 8);
+    }
+
+    private static int squareY(int square){
+        return 80 + 90 * (square / 8);
+    }
+
+    //Every square that overlaps the given area of the panel
+    private static long squaresIn(Rectangle area){
+        int firstCol = Math.max(0, (area.x - 80) / 90);
+        int lastCol = Math.min(7, (area.x + area.width - 80) / 90);
+        int firstRow = Math.max(0, (area.y - 80) / 90);
+        int lastRow = Math.min(7, (area.y + area.height - 80) / 90);
+        long squares = 0;
+        for(int r = firstRow; r <= lastRow; r++)
+            for(int c = firstCol; c <= lastCol; c++)
+                squares |= 1L << (r * 8 + c);
+        return squares;
+    }
+
+    //Adds the finished game to the game record file, if saving games was turned on
+    private void recordGame(){
+        //A game lost on time isn't saved, the discs on the board don't say who won it
+        if(RECORD_PATH == null || flagged != 0)
+            return;
+        //A person playing a side is stored as NONE
+        Difficulty white = Difficulty.NONE;
+        Difficulty black = Difficulty.NONE;
+        long nodeLimit = 0;
+        long timeLimit = 0;
+        if(mode == Mode.PVC){
+            if(c.getColor() == WHITE)
+                white = c.getDifficulty();
+            else
+                black = c.getDifficulty();
+            nodeLimit = c.getNodeLimit();
+            timeLimit = c.getTimeLimit();
+        }
+        try {
+            if(recorder == null)
+                recorder = new GameRecordWriter(RECORD_PATH);
+            recorder.append(GameRecord.fromGame(game, white, black, 0, nodeLimit, timeLimit));
+            //Games in the window are few and far between, so each one goes straight to disk
+            recorder.flush();
+        } catch (IOException e){
+            System.out.println("ERROR: The game couldn't be saved.");
+        }
+    }
+
+    //Gives a COPY of the position to the caller (the computer class), not actual board reference
+    public Position getPositionCopy(){
+        return game.getPosition();
+    }
+
+    //Ends the game and redraws board with end of game stuff on it
     private void endGame(){
         gameOver = true;
-        totalPieces = countPieces();
-        repaint();
+        clock.stop();
+        removeMouseListener(listener); //Remove the mouse listener so that game stops
+        recordGame();
+        refresh();
     }
 
     //Tries to move where the player clicked
@@ -366,10 +625,10 @@ public class Board extends JPanel {
         //If the move wasn't valid,
         if(!goodMove) {
             //If they are at three tries and their setting to show moves is on, add some extra text to next dialog
-            String extraDialog = (currentPlayerTries >= 3 && (player == BLACK ? showMovesBlack : showMovesWhite) ? "\n\nIf you need help, we've highlighted\nall available squares you can play in." : "");
+            String extraDialog = (currentPlayerTries >= 3 && (game.getToMove() == BLACK ? showMovesBlack : showMovesWhite) ? "\n\nIf you need help, we've highlighted\nall available squares you can play in." : "");
             //If same condition met, redraws board with those yellow pieces
-            if((player == BLACK ? showMovesBlack : showMovesWhite) && currentPlayerTries >= 3)
-                    repaint();
+            if((game.getToMove() == BLACK ? showMovesBlack : showMovesWhite) && currentPlayerTries >= 3)
+                    refresh();
             //Shows dialog with or without extra text
             JOptionPane.showMessageDialog(instance, "That's not a valid spot to play! Pick again." + extraDialog, "Invalid Choice!", JOptionPane.ERROR_MESSAGE);
             return false;
@@ -380,125 +639,34 @@ public class Board extends JPanel {
 
     //Updates all available locations for the player to play
     private void updateAvailable(){
-        ArrayList<Spot> possibleSquares = player == BLACK ? possibleSquaresBlack : possibleSquaresWhite;
-        possibleSquares.clear();
-
-        for (int r = 0; r < 8; r ++) {
-            for (int c = 0; c < 8; c ++) {
-                if (board[r][c] == 0) {
-                    for (int d = 0; d < 8; d ++) {
-                        boolean p = checkSpot(r, c, d, false);
-                        //If the spot works, add this spot to list
-                        if (p) {
-                            Spot s = new Spot(r, c);
-                            possibleSquares.add(s);
-                        }
-                    }
-                }
-            }
-        }
-    }
-
-    //Counts pieces on both sides and returns them in array of length 2
-    private int[] countPieces(){
-        int w = 0;
-        int b = 0;
-
-        for (int i = 0; i < 8; i ++) {
-            for (int j = 0; j < 8; j ++) {
-                if (board[i][j] == WHITE) w ++;
-                else if(board[i][j] == BLACK) b++;
-            }
-        }
-
-        return new int[]{b, w};
-    }
-
-    //Checks if the spot in question is valid
-    //d indicates the direction we are moving to check if that spot works
-    //Padded is false for first call, which looks at piece right next to placed piece
-    //Padded is true for future calls, where there is a padding of at least one opposite-color piece between
-    //current piece and the placed piece
-    //There must be at least one opposite colored piece of padding for the move to be valid,
-    //this padding indicates at least one piece will be flipped in that direction
-    public boolean checkSpot(int r, int c, int d, boolean padded) {
-        int nr = r + dr[d];
-        int nc = c + dc[d];
-
-        //If the space is out of bounds or empty, not valid
-        if (!inbounds(nr, nc)) return false;
-
-        //If we run into empty space before running into our color again, not a valid move
-        if (board[nr][nc] == 0) return false;
-
-        //If the space is the same color as the player trying to move, but we haven't already gone through 1+ opposite color pieces, return false
-        if (board[nr][nc] == player && !padded) return false;
-
-        //If we HAVE already gone through an opposite colored piece (padded = true), return true, good move
-        if (board[nr][nc] == player) return true;
-
-        //Keep iterating that same direction
-        return checkSpot(nr, nc, d, true);
+        //Every set bit is a square the player can play
+        //The position only works these out again after a move or undo, so asking twice costs nothing
+        if(game.getToMove() == BLACK)
+            possibleSquaresBlack = game.legalMoves(BLACK);
+        else
+            possibleSquaresWhite = game.legalMoves(WHITE);
     }
 
     //Actively places the piece (returning true), if possible. If not possible, returns false.
     private boolean doTurn(int r, int c) {
-        boolean possibleMove = false;
         //If the place is already occupied or out of bounds, not a valid move
         if (!inbounds(r, c)) return false;
-        if (board[r][c] != 0) return false;
 
-        ArrayList<Spot> currentFlips = new ArrayList<Spot>();
-        for (int i = 0; i < 8; i ++) {
-            if (checkSpot(r, c, i, false)) {
-                flip(r, c, i, currentFlips); // do the turn because it's a possible turn
-                possibleMove = true;
-            }
-        }
+        //Places the piece and flips everything it captures, if it captures anything (the game logs it so it can be undone later)
+        long currentFlips = game.play(r * 8 + c);
         //Returns false if there this is not a possible move (no pieces flipped)
-        if (!possibleMove) return false;
-        //Places the piece and updates mostRecentPlay to hold this piece's location
-        board[r][c] = player;
-        twoMovesAgo[0] = mostRecentPlay[0];
-        twoMovesAgo[1] = mostRecentPlay[1];
-        mostRecentPlay[0] = r;
-        mostRecentPlay[1] = c;
-        //Since we made a move, update the flips stored from last turn to those made this turn
-        flippedPieces = currentFlips;
-        //Plays audio clip when piece is placed successfully
-        try { //We have to do the whole process every time, otherwise the clip only plays once. I know, it looks unnecessary, but it is necessary.
-            Clip clip = AudioSystem.getClip();
-            clip.open(AudioSystem.getAudioInputStream(Paths.get("assets/placePiece.wav").toUri().toURL()));
-            clip.start();
-        } catch (Exception e) {
-            System.out.println("ERROR: Audio can't play.");
-        }
+        if (currentFlips == 0) return false;
+        //Updates mostRecentPlay to hold this piece's location
+        mostRecentPlay = r * 8 + c;
+        //Plays audio clip when piece is placed successfully (on the sound's own thread, so this doesn't wait for it)
+        Sound.placePiece();
         //We did it! Tell the world all about it.
         return true;
     }
 
-    //Flips the all pieces in a given direction from given location, until it reaches the opposite color
-    private void flip(int r, int c, int d, ArrayList<Spot> flips) {
-        int nr = r + dr[d];
-        int nc = c + dc[d];
-
-        //If we get to empty space or opposite color, end the flipping
-        if (board[nr][nc] == 0) return;
-        if (board[nr][nc] == player) return;
-        //Continue flipping
-        board[nr][nc] = player;
-        //Add to list to signify this was flipped on most recent turn
-        flips.add(new Spot(nr, nc));
-        flip(nr, nc, d, flips);
-    }
-
     //Counts remaining spaces. Used to decide if game is over or not
     private int countEmpty() {
-        int c = 0;
-        for (int i = 0; i < 8; i ++)
-            for (int j = 0; j < 8; j ++)
-                if (board[i][j] == 0) c ++;
-        return c;
+        return game.countEmpty();
     }
 
     //Checks whether a piece is in the bounds of the board
@@ -519,98 +687,98 @@ public class Board extends JPanel {
     //Changes difficulty of computer
     public void setDifficulty(Difficulty diff){
         //Does nothing if PVP, trying to reference the computer would causes NullPointerException
+        //Goes through the engine thread like every other change to the computer, so it never lands in the middle of a move
         if(mode == Mode.PVC)
-            c.setDifficulty(diff);
+            ENGINE.execute(() -> c.setDifficulty(diff));
     }
 
     //Sets boolean telling whether board is currently in focus of not
     public void setInFocus(boolean b){
         inFocus = b; //Prevents Board from adding to currentPlayerTries when clicking toggles in settings
-    }
-
-    //Swaps current player to the other one
-    private void swapPlayers(){
-        player = player == BLACK ? WHITE : BLACK;
+        //Lets the keyboard shortcuts reach the board again, this used to be asked for on every repaint
+        if(b)
+            requestFocusInWindow();
     }
 
     //Removes all pieces from the board, resets the middle four pieces to the default, then sets the white player to go next
     //If that white player is the computer, make the first computer move
     private void restart(){
-        //Empty board and set initial pieces
-        board = new int[8][8];
-        board[3][3] = -1;
-        board[4][4] = -1;
-        board[3][4] = 1;
-        board[4][3] = 1;
-        //Set whose turn it is
-        player = WHITE;
-        //Also reset the move history stack
-        stack = new ArrayDeque<Move>();
-        repaint();
-        //Reset two most recent moves to invalid values (back to beginning, nobody has played in this game state
-        mostRecentPlay = new int[]{-1, -1};
-        twoMovesAgo = new int[]{-1, -1};
+        //Forget whatever the computer was thinking about
+        cancelComputerMove();
+        //Empty board and set initial pieces, white to go, and no move history
+        game.reset();
+        //Reset most recent move to an invalid value (back to beginning, nobody has played in this game state)
+        //Done before the refresh, so the last game's final move isn't highlighted on the new board
+        mostRecentPlay = -1;
+        //Both clocks go back to the start, and white's starts running
+        clock.reset();
+        flagged = 0;
+        startClock();
+        updateAvailable();
+        refresh();
         //If the computer has the first turn, make them go
-        //playComputerMove(Spot s) does this automagically
-        if(mode == Mode.PVC && player == c.getColor()){
-            Spot computerMove = c.findMove();
-            playComputerMove(computerMove);
-        }
+        if(mode == Mode.PVC && game.getToMove() == c.getColor())
+            requestComputerMove();
+    }
+
+    //Undo and redo from the keyboard only work when the buttons would too
+    private boolean canTakeBackMoves(){
+        return inFocus && !gameOver;
     }
 
-    //Reads data about previous move from top of the stack, and then undoes that move
+    //Takes back the last move. Against the computer, keeps going back until the player's last move is taken back too
     private void undo(){
-        if(stack.isEmpty() || (stack.size() == 1 && mode == Mode.PVC)) {
-            //Condition 1: There are no recorded moves to undo
-            //Condition 2: The only move was a computer that played first, no player move to undo before that
-            //Either case, tell them they can't undo anything and be done with it
+        MoveHistory history = game.getHistory();
+        int target = history.getPly() - 1;
+        if(mode == Mode.PVC){
+            while(target >= 0 && history.getColor(target) == c.getColor())
+                target--;
+        }
+        if(target < 0) {
+            //Either there are no recorded moves, or the only moves were the computer's, so no player move to undo
             JOptionPane.showMessageDialog(instance, "No moves to undo!", "Cannot perform action!", JOptionPane.ERROR_MESSAGE);
             return;
         }
-        //Takes a move off the top of the history stack and pulls out all its information
-        Move lastMove = stack.pop();
-        int moveColor = lastMove.getColor();
-        Spot piecePlayed = lastMove.getPlacedPiece();
-        Spot prevPiecePlayed = lastMove.getPreviousPiece();
-        ArrayList<Spot> flips = lastMove.getFlips();
+        goToPly(target);
+    }
 
+    //Plays the next undone move again. Against the computer, also replays its answers until it's the player's turn again
+    private void redo(){
+        MoveHistory history = game.getHistory();
+        if(!history.canRedo()) {
+            JOptionPane.showMessageDialog(instance, "No moves to redo!", "Cannot perform action!", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        int target = history.getPly() + 1;
         if(mode == Mode.PVC){
-            //Will always be player's turn, player can't click while computer is moving
-
-            //Undoes two moves, one for the computer and one for the user.
-            //After undoing the computer move, change lastMove to the move right before,
-            // the player's move, and undo that too
-            for(int i = 0; i < 2; i++){
-                //Performs the undoing action
-                board[piecePlayed.r][piecePlayed.c] = 0;
-                for(Spot s : flips)
-                    board[s.r][s.c] *= -1;
-                mostRecentPlay = new int[]{prevPiecePlayed.r, prevPiecePlayed.c};
-                //If first iteration, update last move to the move before the current
-                //If second iteration, skip this so we aren't popping extra elements we shouldn't be touching yet
-                if(i == 0) {
-                    lastMove = stack.pop();
-                    //We don't care about move color since the color will return to the player's color every time, no need to reassign
-                    piecePlayed = lastMove.getPlacedPiece();
-                    prevPiecePlayed = lastMove.getPreviousPiece();
-                    flips = lastMove.getFlips();
-                }
-            }
-
-        } else {
-            //Flips back all pieces flipped from previous move and removes the piece played
-            board[piecePlayed.r][piecePlayed.c] = 0;
-            for(Spot s : flips)
-                board[s.r][s.c] *= -1;
-            mostRecentPlay = new int[]{prevPiecePlayed.r, prevPiecePlayed.c};
-            //Whoever made the move, it's their turn again. This is so that, if a player was skipped between two moves,
-            //undoing the move returns to the correct player's turn, not just "the opposite of the current color", which is wrong if there
-            //were two black moves in a row for that reason.
-            player = moveColor;
-            updateAvailable();
-            //We don't need to worry about checking if a player can play or not, since they clearly already did.
+            while(target < history.size() && history.getColor(target) == c.getColor())
+                target++;
         }
-        //Update board status
-        repaint();
+        goToPly(target);
+        //If the redone moves ran out on the computer's turn, let it play from here
+        if(!gameOver && mode == Mode.PVC && game.getToMove() == c.getColor())
+            requestComputerMove();
+    }
+
+    //Puts the board back to how it was after the given number of moves from the start, as long as those moves are in the history
+    public void goToPly(int ply){
+        //Whatever the computer was thinking about isn't the position on the board any more
+        cancelComputerMove();
+        //The game works out whose turn it is. This is so that, if a player was skipped between two moves,
+        //we return to the correct player's turn, not just "the opposite of the last color", which is wrong if there
+        //were two black moves in a row for that reason.
+        game.goTo(ply);
+        mostRecentPlay = game.getHistory().lastSquare();
+        currentPlayerTries = 0;
+        //Past the last recorded move, a player with nowhere to go is skipped like in the game
+        if(game.mustPass())
+            game.pass();
+        updateAvailable();
+        //Nobody can move from the end of the history, so that was the end of the game
+        if(game.isOver())
+            endGame();
+        //Taking moves back doesn't give any time back, the clock just switches to whoever's turn it is now
+        startClock();
+        refresh();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,38 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+//Flight recorder event for one paint of the board, covering the area being repainted
+@Name("othello.BoardPaint")
+@Label("Board Paint")
+@Category({"Othello", "Window"})
+@Description("One paintComponent of the board")
+@StackTrace(false)
+public class BoardPaintEvent extends Event {
+
+    @Label("X")
+    int x;
+
+    @Label("Y")
+    int y;
+
+    @Label("Width")
+    int width;
+
+    @Label("Height")
+    int height;
+
+    @Label("Squares")
+    @Description("Squares inside the repainted area")
+    int squares;
+
+    @Label("Pieces")
+    @Description("Discs drawn")
+    int pieces;
+
+    @Label("Game Over")
+    boolean gameOver;
+}
@@ -65,19 +65,19 @@ public class HomeScreen extends JPanel {
         });
     }
 
-    //Mixes up the panel to now ask whether the computer should be easy/medium/hard
+    //Mixes up the panel to now ask whether the computer should be easy/medium/hard/expert/Monte Carlo
     private void askDifficulty(){
         removeAll(); //Removes all previous components and applies changes
         repaint();
 
         //New long list of components to be added to the panel
         JLabel choose = new JLabel("What level computer?");
-        choose.setBounds(260, 100, 400, 100);
+        choose.setBounds(260, 80, 400, 100);
         choose.setFont(new Font("Book Antiqua", Font.PLAIN, 35));
         add(choose);
 
         JButton easy = new JButton("Easy");
-        easy.setBounds(335, 240, 200, 100);
+        easy.setBounds(285, 200, 300, 100);
         easy.setHorizontalTextPosition(SwingConstants.CENTER);
         easy.setVerticalTextPosition(SwingConstants.CENTER);
         easy.setFont(new Font("Book Antiqua", Font.PLAIN, 35));
@@ -86,7 +86,7 @@ public class HomeScreen extends JPanel {
         add(easy);
 
         JButton medium = new JButton("Medium");
-        medium.setBounds(335, 440, 200, 100);
+        medium.setBounds(285, 320, 300, 100);
         medium.setHorizontalTextPosition(SwingConstants.CENTER);
         medium.setVerticalTextPosition(SwingConstants.CENTER);
         medium.setFont(new Font("Book Antiqua", Font.PLAIN, 35));
@@ -95,7 +95,7 @@ public class HomeScreen extends JPanel {
         add(medium);
 
         JButton hard = new JButton("Hard");
-        hard.setBounds(335, 640, 200, 100);
+        hard.setBounds(285, 440, 300, 100);
         hard.setHorizontalTextPosition(SwingConstants.CENTER);
         hard.setVerticalTextPosition(SwingConstants.CENTER);
         hard.setFont(new Font("Book Antiqua", Font.PLAIN, 35));
@@ -103,6 +103,24 @@ public class HomeScreen extends JPanel {
         hard.setOpaque(true);
         add(hard);
 
+        JButton expert = new JButton("Expert");
+        expert.setBounds(285, 560, 300, 100);
+        expert.setHorizontalTextPosition(SwingConstants.CENTER);
+        expert.setVerticalTextPosition(SwingConstants.CENTER);
+        expert.setFont(new Font("Book Antiqua", Font.PLAIN, 35));
+        expert.setBackground(Color.WHITE);
+        expert.setOpaque(true);
+        add(expert);
+
+        JButton monteCarlo = new JButton("Monte Carlo");
+        monteCarlo.setBounds(285, 680, 300, 100);
+        monteCarlo.setHorizontalTextPosition(SwingConstants.CENTER);
+        monteCarlo.setVerticalTextPosition(SwingConstants.CENTER);
+        monteCarlo.setFont(new Font("Book Antiqua", Font.PLAIN, 35));
+        monteCarlo.setBackground(Color.WHITE);
+        monteCarlo.setOpaque(true);
+        add(monteCarlo);
+
         //When any button is clicked, update difficulty and then ask for which color the player wants
         easy.addActionListener(new ActionListener() {
             @Override
@@ -125,6 +143,20 @@ public class HomeScreen extends JPanel {
                 playerColor();
             }
         });
+        expert.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                diff = Difficulty.EXPERT;
+                playerColor();
+            }
+        });
+        monteCarlo.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                diff = Difficulty.MONTE_CARLO;
+                playerColor();
+            }
+        });
     }
 
     //Asks which color the player wants, then goes into game
@@ -19,6 +19,9 @@ public class Runner extends JFrame {
     }
 
     private Runner(){
+        //Starts reading all the images and the sound while the home screen is up, so starting a game doesn't have to
+        Assets.preload();
+        Sound.preload();
         //Sets up frame
         setDefaultCloseOperation(EXIT_ON_CLOSE);
         setPreferredSize(new Dimension(885, 905));
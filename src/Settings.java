@@ -1,14 +1,11 @@
 import enums.Difficulty;
 import enums.Mode;
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
 
 public class Settings extends JPanel {
 
@@ -27,6 +24,8 @@ public class Settings extends JPanel {
     private JButton easy;
     private JButton medium;
     private JButton hard;
+    private JButton expert;
+    private JButton monteCarlo;
 
     public Settings(Runner runner, Mode m, Difficulty diff, int computerColor){
         this.computerColor = computerColor;
@@ -55,28 +54,42 @@ public class Settings extends JPanel {
         add(changeDifficulty);
 
         easy = new JButton("Easy");
-        easy.setBounds(370, 350, 130, 60);
+        easy.setBounds(355, 330, 160, 60);
         easy.setHorizontalTextPosition(SwingConstants.CENTER);
         easy.setVerticalTextPosition(SwingConstants.CENTER);
         easy.setFont(new Font("Book Antiqua", Font.PLAIN, 20));
         add(easy);
 
         medium = new JButton("Medium");
-        medium.setBounds(370, 450, 130, 60);
+        medium.setBounds(355, 410, 160, 60);
         medium.setHorizontalTextPosition(SwingConstants.CENTER);
         medium.setVerticalTextPosition(SwingConstants.CENTER);
         medium.setFont(new Font("Book Antiqua", Font.PLAIN, 20));
         add(medium);
 
         hard = new JButton("Hard");
-        hard.setBounds(370, 550, 130, 60);
+        hard.setBounds(355, 490, 160, 60);
         hard.setHorizontalTextPosition(SwingConstants.CENTER);
         hard.setVerticalTextPosition(SwingConstants.CENTER);
         hard.setFont(new Font("Book Antiqua", Font.PLAIN, 20));
         add(hard);
 
+        expert = new JButton("Expert");
+        expert.setBounds(355, 570, 160, 60);
+        expert.setHorizontalTextPosition(SwingConstants.CENTER);
+        expert.setVerticalTextPosition(SwingConstants.CENTER);
+        expert.setFont(new Font("Book Antiqua", Font.PLAIN, 20));
+        add(expert);
+
+        monteCarlo = new JButton("Monte Carlo");
+        monteCarlo.setBounds(355, 650, 160, 60);
+        monteCarlo.setHorizontalTextPosition(SwingConstants.CENTER);
+        monteCarlo.setVerticalTextPosition(SwingConstants.CENTER);
+        monteCarlo.setFont(new Font("Book Antiqua", Font.PLAIN, 20));
+        add(monteCarlo);
+
         JButton exit = new JButton("Back to Game");
-        exit.setBounds(300, 650, 270, 60);
+        exit.setBounds(300, 740, 270, 60);
         exit.setHorizontalTextPosition(SwingConstants.CENTER);
         exit.setVerticalTextPosition(SwingConstants.CENTER);
         exit.setFont(new Font("Book Antiqua", Font.BOLD, 20));
@@ -87,14 +100,20 @@ public class Settings extends JPanel {
         easy.setOpaque(true);
         medium.setOpaque(true);
         hard.setOpaque(true);
+        expert.setOpaque(true);
+        monteCarlo.setOpaque(true);
         //Disables difficulty buttons when no computer in the game
         if(mode == Mode.PVP){
             easy.setForeground(Color.RED);
             medium.setForeground(Color.RED);
             hard.setForeground(Color.RED);
+            expert.setForeground(Color.RED);
+            monteCarlo.setForeground(Color.RED);
             easy.setText("N/A");
             medium.setText("N/A");
             hard.setText("N/A");
+            expert.setText("N/A");
+            monteCarlo.setText("N/A");
         }
         //If there is a computer, takes the difficulty and applies color to the respective button
         //If difficulty is set to none, no effect will be had (because there is no computer)
@@ -104,13 +123,9 @@ public class Settings extends JPanel {
         //The reason these are images and not real buttons is because adding an image to the background of a button
         //Causes the button to change to a 3-D style, and there is gray around the edges where the button extends in the z plane
         //To avoid that, we just draw them as images and when the user clicks where an image is, it updates things accordingly
-        try {
-            toggleOn = ImageIO.read(new File("assets/onToggle.png"));
-            toggleOff = ImageIO.read(new File("assets/offToggle.png"));
-            disabledToggle = ImageIO.read(new File("assets/disabledToggle.png"));
-        } catch (IOException e){
-            System.out.println("The necessary images for this game could not be loaded.");
-        }
+        toggleOn = Assets.image("onToggle.png");
+        toggleOff = Assets.image("offToggle.png");
+        disabledToggle = Assets.image("disabledToggle.png");
         //Tracks the user's mouse for when it presses a toggle (button clicks are handled separately
         MouseListener listener = new MouseListener(){
             @Override
@@ -183,6 +198,28 @@ public class Settings extends JPanel {
                 }
             }
         });
+        expert.addActionListener(new ActionListener(){
+            @Override
+            public void actionPerformed(java.awt.event.ActionEvent e) {
+                if(mode == Mode.PVP){
+                    JOptionPane.showMessageDialog(runner, "You are not playing a computer,\n so these buttons do nothing!", "You Can't Choose This", JOptionPane.ERROR_MESSAGE);
+                } else {
+                    setDiff(Difficulty.EXPERT);
+                    updateButtonColors();
+                }
+            }
+        });
+        monteCarlo.addActionListener(new ActionListener(){
+            @Override
+            public void actionPerformed(java.awt.event.ActionEvent e) {
+                if(mode == Mode.PVP){
+                    JOptionPane.showMessageDialog(runner, "You are not playing a computer,\n so these buttons do nothing!", "You Can't Choose This", JOptionPane.ERROR_MESSAGE);
+                } else {
+                    setDiff(Difficulty.MONTE_CARLO);
+                    updateButtonColors();
+                }
+            }
+        });
         //Sets the exit button to leave the settings panel and go back to the game
         exit.addActionListener(new ActionListener(){
             @Override
@@ -242,6 +279,8 @@ public class Settings extends JPanel {
         easy.setBackground(Color.WHITE);
         medium.setBackground(Color.WHITE);
         hard.setBackground(Color.WHITE);
+        expert.setBackground(Color.WHITE);
+        monteCarlo.setBackground(Color.WHITE);
 
         if(diff == Difficulty.EASY) {
             easy.setBackground(light);
@@ -249,6 +288,10 @@ public class Settings extends JPanel {
             medium.setBackground(light);
         } else if(diff == Difficulty.HARD){
             hard.setBackground(light);
+        } else if(diff == Difficulty.EXPERT){
+            expert.setBackground(light);
+        } else if(diff == Difficulty.MONTE_CARLO){
+            monteCarlo.setBackground(light);
         }
         //If difficulty == Difficulty.NONE, there is no computer, so don't paint any buttons special.
         //Apply changes
@@ -0,0 +1,74 @@
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.Clip;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+//Plays the sound of a piece being placed
+//The wav is read from disk once and kept in a few ready clips, so pieces placed close together each get their own sound.
+//Everything happens on the sound's own thread, so a slow audio device never holds up the game.
+public class Sound {
+
+    //How many placements can be heard at once before the oldest one gets cut off
+    private static final int POOL_SIZE = 4;
+
+    private static final ExecutorService player = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "Othello sound");
+        t.setDaemon(true);
+        return t;
+    });
+
+    //Only touched on the sound thread
+    private static Clip[] clips;
+    private static int next = 0;
+    //Set if the sound couldn't be loaded, so it isn't tried again on every move
+    private static boolean broken = false;
+
+    private Sound(){}
+
+    //Reads the sound and opens the clips in the background, so the first move doesn't have to
+    public static void preload(){
+        player.execute(Sound::load);
+    }
+
+    //Plays the place-piece sound and returns straight away
+    public static void placePiece(){
+        player.execute(() -> {
+            load();
+            if(broken)
+                return;
+            Clip clip = clips[next];
+            next = (next + 1) % clips.length;
+            //A clip only plays from where it last stopped, so it's rewound every time
+            clip.stop();
+            clip.setFramePosition(0);
+            clip.start();
+        });
+    }
+
+    private static void load(){
+        if(clips != null || broken)
+            return;
+        try (AudioInputStream in = AudioSystem.getAudioInputStream(new File("assets/placePiece.wav"))){
+            AudioFormat format = in.getFormat();
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while((read = in.read(buffer)) > 0)
+                bytes.write(buffer, 0, read);
+            byte[] data = bytes.toByteArray();
+            Clip[] pool = new Clip[POOL_SIZE];
+            for(int i = 0; i < POOL_SIZE; i++){
+                pool[i] = AudioSystem.getClip();
+                pool[i].open(format, data, 0, data.length);
+            }
+            clips = pool;
+        } catch (Exception e) {
+            broken = true;
+            System.out.println("ERROR: Audio can't play.");
+        }
+    }
+}
@@ -1,8 +0,0 @@
-//Represents a location on the board (r, c) on a 0-index
-public class Spot {
-    int r, c;
-    public Spot (int rr, int cc) {
-        this.r = rr;
-        this.c = cc;
-    }
-}
\ No newline at end of file
@@ -0,0 +1,162 @@
+package engine;
+
+import enums.Difficulty;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+//Finds the best move for many positions without the window, one position per line, using every core
+//Each input line is a 64 character board and the side to move (X or O), like "---...XO...--- X". Each output line is the input
+//line followed by the best move (like f5, or "pass"), its score and the number of positions searched. Results come out
+//in the same order as the input, as soon as they're ready. Only a few lines per thread are ever held at once, so any
+//amount of input can be streamed through.
+//
+//Usage: Analyze [--difficulty d | --depth n] [--threads n] [--nodes n] [--time ms] [--playouts n] [--hash mb] [input file]
+//Without an input file, positions are read from standard input. Scores are from the point of view of the side to move.
+public class Analyze {
+
+    //How many lines each thread may have waiting or being worked on before reading stops to let output catch up
+    private static final int LINES_PER_THREAD = 4;
+
+    private Difficulty difficulty = Difficulty.EXPERT;
+    //Fixed depth for every search, 0 to search by difficulty instead
+    private int depth = 0;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private long nodeLimit = 0;
+    private long timeLimit = 1000;
+    private long playoutLimit = 0;
+    private int hashMegabytes = 16;
+
+    //Each worker thread keeps its own computer or search, so nothing is shared between positions being worked on at once
+    private final ThreadLocal<Computer> computers = ThreadLocal.withInitial(this::createComputer);
+    private final ThreadLocal<ParallelSearch> searches = ThreadLocal.withInitial(this::createSearch);
+
+    public static void main(String[] args) throws Exception {
+        Analyze analyze = new Analyze();
+        String input = null;
+        for(int i = 0; i < args.length; i++){
+            switch(args[i]){
+                case "--difficulty": analyze.difficulty = Difficulty.valueOf(args[++i].toUpperCase()); break;
+                case "--depth": analyze.depth = Integer.parseInt(args[++i]); break;
+                case "--threads": analyze.threads = Integer.parseInt(args[++i]); break;
+                case "--nodes": analyze.nodeLimit = Long.parseLong(args[++i]); break;
+                case "--time": analyze.timeLimit = Long.parseLong(args[++i]); break;
+                case "--playouts": analyze.playoutLimit = Long.parseLong(args[++i]); break;
+                case "--hash": analyze.hashMegabytes = Integer.parseInt(args[++i]); break;
+                default:
+                    if(args[i].startsWith("--")){
+                        System.out.println("Usage: Analyze [--difficulty d | --depth n] [--threads n] [--nodes n] [--time ms] [--playouts n] [--hash mb] [input file]");
+                        return;
+                    }
+                    input = args[i];
+            }
+        }
+        try(Reader in = input == null ? new InputStreamReader(System.in) : new FileReader(input);
+            Writer out = new BufferedWriter(new OutputStreamWriter(System.out))){
+            analyze.run(new BufferedReader(in, 1 << 16), out);
+        }
+    }
+
+    //Reads every line, works them out on the worker threads and writes the results in input order
+    public void run(BufferedReader in, Writer out) throws IOException, InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        //Lines handed to the workers whose results haven't been written yet, oldest first
+        Deque<Future<String>> pending = new ArrayDeque<>();
+        int window = threads * LINES_PER_THREAD;
+        try {
+            String line;
+            long lineNumber = 0;
+            while((line = in.readLine()) != null){
+                if(line.trim().isEmpty())
+                    continue;
+                final String position = line.trim();
+                final long seed = lineNumber++;
+                pending.add(pool.submit(() -> analyze(position, seed)));
+                //Once the window is full, wait for the oldest line, this is what keeps memory bounded
+                if(pending.size() >= window)
+                    write(pending.poll(), out);
+                //Writes anything else already finished, so results stream out while input is still coming
+                while(!pending.isEmpty() && pending.peek().isDone())
+                    write(pending.poll(), out);
+            }
+            while(!pending.isEmpty())
+                write(pending.poll(), out);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void write(Future<String> result, Writer out) throws IOException, InterruptedException {
+        try {
+            out.write(result.get());
+        } catch (ExecutionException e){
+            out.write("error: " + e.getCause().getMessage());
+        }
+        out.write('\n');
+    }
+
+    //Works out one line, on a worker thread
+    private String analyze(String line, long seed){
+        String[] parts = line.split("\\s+");
+        if(parts.length < 2)
+            throw new IllegalArgumentException("Expected a board and a side to move: " + line);
+        Position position = Position.parse(parts[0]);
+        int color = Position.parseColor(parts[1].charAt(0));
+        if(position.legalMoves(color) == 0)
+            return line + " pass 0 0";
+
+        int square;
+        String score;
+        long nodes;
+        //Every line starts from empty tables, so its result doesn't depend on which lines its thread happened to do before
+        if(depth > 0){
+            ParallelSearch search = searches.get();
+            search.clearTable();
+            square = search.findBestMove(position, color);
+            score = Integer.toString(search.getBestScore());
+            nodes = search.getNodes();
+        } else {
+            Computer computer = computers.get();
+            computer.newGame();
+            computer.setColor(color);
+            //Seeded from the line number, so the easy computer picks the same moves every run
+            computer.setRandom(new Random(seed));
+            square = computer.findMove(position).square();
+            //Only the expert computer scores its moves
+            score = difficulty == Difficulty.EXPERT ? Integer.toString(computer.getLastScore()) : "-";
+            nodes = computer.getLastNodes();
+        }
+        return line + " " + (char) ('a' + square % 8) + (square / 8 + 1) + " " + score + " " + nodes;
+    }
+
+    private Computer createComputer(){
+        Computer computer = new Computer(Position.WHITE, difficulty);
+        computer.setHashSize(hashMegabytes);
+        computer.setTimeLimit(timeLimit);
+        computer.setNodeLimit(nodeLimit);
+        computer.setPlayoutLimit(playoutLimit);
+        //Positions are already spread over the threads, so each computer thinks on its own one
+        computer.setSearchThreads(1);
+        return computer;
+    }
+
+    private ParallelSearch createSearch(){
+        ParallelSearch search = new ParallelSearch(1, hashMegabytes);
+        search.setTimeLimit(0);
+        search.setNodeLimit(nodeLimit);
+        search.setMaxDepth(depth);
+        return search;
+    }
+}
@@ -0,0 +1,170 @@
+package engine;
+
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+//Builds an opening book file from games, either played by the computer against itself or read from game records
+//Every position in the first few moves of each game is counted, and the book keeps the move that scored best from it
+//
+//Usage: BookBuilder selfplay <games> <plies> <output>
+//       BookBuilder import <records.txt> <plies> <output>
+//Records are one game per line, written as squares like "f5d6c3d3", column letter then row number
+public class BookBuilder {
+
+    //How many random moves start each self-play game, so they don't all play the same opening
+    private static final int RANDOM_PLIES = 6;
+    //Nodes the computer searches for each self-play move
+    private static final int SELF_PLAY_NODES = 20000;
+
+    //For every canonical position: the games and total final score (for the player to move) after each canonical move
+    private final Map<Long, int[]> stats = new HashMap<>();
+    private final int plies;
+
+    public BookBuilder(int plies){
+        this.plies = plies;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if(args.length < 4){
+            System.out.println("Usage: BookBuilder selfplay <games> <plies> <output>");
+            System.out.println("       BookBuilder import <records.txt> <plies> <output>");
+            return;
+        }
+        BookBuilder builder = new BookBuilder(Integer.parseInt(args[2]));
+        if(args[0].equals("selfplay")){
+            builder.selfPlay(Integer.parseInt(args[1]), 1);
+        } else {
+            try(BufferedReader reader = new BufferedReader(new FileReader(args[1]))){
+                String line;
+                while((line = reader.readLine()) != null){
+                    if(!line.trim().isEmpty())
+                        builder.addGame(parseRecord(line.trim()));
+                }
+            }
+        }
+        int entries = builder.write(args[3]);
+        System.out.println("Wrote " + entries + " positions to " + args[3]);
+    }
+
+    //Plays games of the computer against itself and adds them, with a fixed seed so the same book comes out every time
+    public void selfPlay(int games, long seed){
+        Random random = new Random(seed);
+        ParallelSearch search = new ParallelSearch(1, 16);
+        search.setTimeLimit(0);
+        search.setNodeLimit(SELF_PLAY_NODES);
+        for(int g = 0; g < games; g++){
+            Position position = new Position();
+            int color = Position.WHITE;
+            int[] moves = new int[64];
+            int count = 0;
+            int passes = 0;
+            while(passes < 2){
+                long legal = position.legalMoves(color);
+                if(legal == 0){
+                    passes++;
+                    color = -color;
+                    continue;
+                }
+                passes = 0;
+                int square;
+                if(count < RANDOM_PLIES){
+                    for(int skip = random.nextInt(Long.bitCount(legal)); skip > 0; skip--)
+                        legal &= legal - 1;
+                    square = Long.numberOfTrailingZeros(legal);
+                } else {
+                    square = search.findBestMove(position, color);
+                }
+                position.play(color, square);
+                moves[count++] = square;
+                color = -color;
+            }
+            int[] game = new int[count];
+            System.arraycopy(moves, 0, game, 0, count);
+            addGame(game);
+        }
+        search.shutdown();
+    }
+
+    //Turns a record like "f5d6c3" into square indexes, -1 marks a square that can't be read
+    static int[] parseRecord(String record){
+        int[] game = new int[record.length() / 2];
+        for(int i = 0; i < game.length; i++){
+            int c = Character.toLowerCase(record.charAt(2 * i)) - 'a';
+            int r = record.charAt(2 * i + 1) - '1';
+            game[i] = (r < 0 || r > 7 || c < 0 || c > 7) ? -1 : r * 8 + c;
+        }
+        return game;
+    }
+
+    //Replays a game from the start and counts its first moves, stopping at the first illegal move
+    //Passes aren't written down, so the side to move passes whenever it has no legal move
+    public void addGame(int[] game){
+        Position position = new Position();
+        int color = Position.WHITE;
+        int played = 0;
+        for(int square : game){
+            if(position.legalMoves(color) == 0)
+                color = -color;
+            if(square < 0 || position.play(color, square) == 0)
+                break;
+            played++;
+            color = -color;
+        }
+        //Score of the game for whoever moved first, from the discs on the board when it stopped
+        int firstMoverScore = position.count(Position.WHITE) - position.count(Position.BLACK);
+
+        position = new Position();
+        color = Position.WHITE;
+        for(int i = 0; i < Math.min(played, plies); i++){
+            if(position.legalMoves(color) == 0)
+                color = -color;
+            long own = position.discs(color);
+            long opp = position.discs(-color);
+            int sym = OpeningBook.canonicalSymmetry(own, opp);
+            long key = Position.hash(Position.symmetry(own, sym), Position.symmetry(opp, sym));
+            int move = Position.symmetrySquare(game[i], sym);
+            int[] s = stats.computeIfAbsent(key, k -> new int[128]);
+            s[move]++;
+            s[64 + move] += color == Position.WHITE ? firstMoverScore : -firstMoverScore;
+            position.play(color, game[i]);
+            color = -color;
+        }
+    }
+
+    //Writes the best move of every position to the book file, sorted by key, and returns how many there were
+    public int write(String path) throws IOException {
+        ArrayList<Long> keys = new ArrayList<>(stats.keySet());
+        Collections.sort(keys);
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path)))){
+            out.writeInt(Integer.reverseBytes(OpeningBook.MAGIC));
+            out.writeInt(Integer.reverseBytes(keys.size()));
+            for(long key : keys){
+                int[] s = stats.get(key);
+                //Best average score, with the more often played move winning ties
+                int best = -1;
+                for(int move = 0; move < 64; move++){
+                    if(s[move] == 0)
+                        continue;
+                    if(best < 0 || (long) s[64 + move] * s[best] > (long) s[64 + best] * s[move]
+                            || ((long) s[64 + move] * s[best] == (long) s[64 + best] * s[move] && s[move] > s[best]))
+                        best = move;
+                }
+                out.writeLong(Long.reverseBytes(key));
+                out.writeByte(best);
+                out.writeByte(0);
+                out.writeShort(Short.reverseBytes((short) (s[64 + best] / s[best])));
+                out.writeInt(Integer.reverseBytes(s[best]));
+            }
+        }
+        return keys.size();
+    }
+}
@@ -0,0 +1,499 @@
+package engine;
+
+import enums.Difficulty;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class Computer {
+
+    //Squares in each category the hard computer chooses between, one bit per square
+    private static final long CORNER = 0x8100000000000081L;
+    private static final long EDGE = 0x3C0081818181003CL;
+    private static final long SECOND_CORNER = 0x42C300000000C342L;
+    private static final long SECOND_EDGE = 0x003C424242423C00L;
+    private static final long BODY = ~(CORNER | EDGE | SECOND_CORNER | SECOND_EDGE);
+
+    //Every square the computer could play right now, one bit per square
+    private long possibleSquares;
+
+    private int color;
+    //Only changed on the thread that finds moves, but the board reads it too when saving a game
+    private volatile Difficulty difficulty;
+    private Position currentBoardState;
+    //Looks ahead several moves for the expert difficulty, on one thread unless told to use more
+    private ParallelSearch search = new ParallelSearch(1, 16);
+    //Plays perfectly once few enough squares are left, for the expert difficulty
+    private EndgameSolver solver = new EndgameSolver();
+    //Plays out random games for the Monte Carlo difficulty, on every core unless told otherwise
+    private MonteCarloSearch monteCarlo = new MonteCarloSearch(Runtime.getRuntime().availableProcessors());
+    //Known good opening moves for the expert difficulty (null if the game has no book file)
+    private OpeningBook book = OpeningBook.getDefault();
+    //The expert computer switches from searching to solving the game at this many empty squares
+    private int endgameEmpties = 20;
+    //Picks the easy computer's moves, can be seeded so games can be played again exactly
+    private Random random = new Random();
+    //Goes up on every stop(), so the expert computer gives up early on a move the board no longer wants
+    //A move asked for before a stop() is stopped by it, even if it hadn't started yet when the stop came
+    private final AtomicInteger stops = new AtomicInteger();
+    //Value of stops when the move being worked out was asked for
+    private int asked;
+
+    //What the expert computer thought of its last move: the score it expects and how many positions it looked at
+    private int lastScore;
+    private long lastNodes;
+    //Depth the expert computer's search finished for its last move, and the table lookups behind it, for the metrics
+    private int lastDepth;
+    private long lastTableProbes;
+    private long lastTableHits;
+
+    //Limits the expert computer thinks with, kept here so they can be put back after pondering without any
+    private long searchTimeLimit = 1000;
+    //The solver gets the same time as the search, so a hard endgame can't hold up the game; 0 (no limit) only if asked for
+    private long solverTimeLimit = 1000;
+    private long nodeLimit = 0;
+    private long playoutLimit = 0;
+
+    //Pondering: while the player thinks, the expert computer guesses their reply and starts thinking about its answer to it
+    private boolean ponderEnabled = false;
+    //The thread pondering happens on, made the first time it's needed
+    private ExecutorService ponderThread;
+    private Future<Integer> pondering;
+    //Position the computer expects to be given next (after the guessed reply), and when pondering on it started
+    private volatile Position ponderPosition;
+    private volatile long ponderStart;
+    //Time the pondering search would normally have had for this move (0 for no limit)
+    private volatile long ponderLimit;
+    //Tells the pondering to finish up, and marks its answer as no good (the game changed under it)
+    private volatile boolean ponderStop;
+    private volatile boolean ponderCancelled;
+    //Whether the pondering answer came from the endgame solver rather than the search
+    private volatile boolean ponderSolved;
+
+    //The computer isn't attached to the board, positions are passed to findMove, so it can also play without the window
+    public Computer(int color, Difficulty difficulty){
+        //Sets defaults based on what the user chose in the home screen
+        this.color = color;
+        this.difficulty = difficulty;
+        //Publishing the metrics over JMX the first time takes a moment, better now than on the clock during the first move
+        EngineMetrics.of(difficulty);
+        applyTimeLimits(searchTimeLimit, solverTimeLimit);
+    }
+    //Changes the difficulty in the middle of the game, only called if changed in settings
+    public void setDifficulty(Difficulty diff){
+        difficulty = diff;
+    }
+    //Changes how long the expert computer may think about one move, in milliseconds (0 for no limit)
+    public void setTimeLimit(long millis){
+        searchTimeLimit = millis;
+        solverTimeLimit = millis;
+        search.setTimeLimit(millis);
+        solver.setTimeLimit(millis);
+        monteCarlo.setTimeLimit(millis);
+    }
+    //Changes how many positions the expert computer may look at for one move (0 for no limit)
+    public void setNodeLimit(long nodes){
+        nodeLimit = nodes;
+        search.setNodeLimit(nodes);
+        solver.setNodeLimit(nodes);
+    }
+    //Changes how many random games the Monte Carlo computer may play out for one move (0 for no limit)
+    public void setPlayoutLimit(long playouts){
+        playoutLimit = playouts;
+        monteCarlo.setPlayoutLimit(playouts);
+    }
+    //Changes which opening book the expert computer plays from (null for none)
+    public void setOpeningBook(OpeningBook book){
+        this.book = book;
+    }
+    //Changes how many empty squares must be left before the expert computer solves the rest of the game exactly
+    public void setEndgameEmpties(int empties){
+        endgameEmpties = empties;
+    }
+    //Changes how many megabytes the expert computer may use to remember positions it has searched
+    public void setHashSize(int megabytes){
+        stopPondering();
+        search.setHashSize(megabytes);
+        solver.setHashSize(megabytes);
+    }
+    //Changes where the computer's random choices come from
+    public void setRandom(Random random){
+        this.random = random;
+    }
+    //Forgets everything remembered from the last game, so the next one plays the same no matter what came before
+    public void newGame(){
+        stopPondering();
+        search.clearTable();
+        solver.clearTable();
+        monteCarlo.clearTree();
+    }
+    //Changes which color the computer plays, for reusing one computer over many games
+    public void setColor(int color){
+        this.color = color;
+    }
+    //Changes how many cores the expert and Monte Carlo computers search with
+    public void setSearchThreads(int threads){
+        search.setThreads(threads);
+        monteCarlo.setThreads(threads);
+    }
+    //Asks a findMove running on another thread to give up and return soon. The move it returns then shouldn't be played
+    public void stop(){
+        //Counted before the searches are stopped, see decide()
+        stops.incrementAndGet();
+        ponderStop = true;
+        ponderCancelled = true;
+        solver.stop();
+        search.stop();
+        monteCarlo.stop();
+    }
+    //Turns pondering on or off. Only the expert computer ponders, and only when told to with ponder()
+    public void setPondering(boolean on){
+        ponderEnabled = on;
+        if(!on)
+            stopPondering();
+    }
+    //Called once the computer's move has been played and it's the other player's turn, with the position they're thinking about
+    //Guesses their reply, then searches its own answer to it on the pondering thread until the next findMove
+    public void ponder(Position position){
+        stopPondering();
+        if(!ponderEnabled || difficulty != Difficulty.EXPERT || position.legalMoves(-color) == 0)
+            return;
+        if(ponderThread == null){
+            ponderThread = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "Othello pondering");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        final Position start = position.copy();
+        //Stopping the last pondering (or move) left the searches stopped
+        search.resume();
+        solver.resume();
+        ponderPosition = null;
+        ponderSolved = false;
+        ponderStop = false;
+        ponderCancelled = false;
+        ponderStart = System.nanoTime();
+        pondering = ponderThread.submit(() -> ponderOn(start));
+    }
+    public Difficulty getDifficulty(){
+        return difficulty;
+    }
+    //Milliseconds and nodes the expert computer may use for one move (0 for no limit)
+    public long getTimeLimit(){
+        return searchTimeLimit;
+    }
+    public long getNodeLimit(){
+        return nodeLimit;
+    }
+    public long getPlayoutLimit(){
+        return playoutLimit;
+    }
+    //Score the expert computer expected for its last move (disc difference once it's solving the endgame, 0 from the book)
+    public int getLastScore(){
+        return lastScore;
+    }
+    //Positions the expert computer looked at for its last move, or games the Monte Carlo computer played out
+    //(0 for the other difficulties and book moves)
+    public long getLastNodes(){
+        return lastNodes;
+    }
+    //Number of stop() calls so far, to pass to findMove for a move asked for now but worked out later
+    public int getStops(){
+        return stops.get();
+    }
+    //Returns the computer's color (used for checking for available moves/flipping pieces)
+    public int getColor(){
+        return color;
+    }
+    //Finds the computer's move in a game, or null if it isn't the computer's turn or it has nowhere to play
+    public Spot findMove(Game game){
+        if(game.getToMove() != color)
+            return null;
+        return findMove(game.getPosition());
+    }
+    //Finds the computer's move in a game played on a clock, thinking for as long as the clock's time manager gives it
+    public Spot findMove(Game game, GameClock clock){
+        if(game.getToMove() != color)
+            return null;
+        if(!clock.isTimed())
+            return findMove(game.getPosition());
+        return findMove(game.getPosition(), clock.moveTime(color, game.countEmpty()));
+    }
+    //Called by board, finds the computer's preferred move in the given position based on the current difficulty of the computer
+    //The board passes a copy of its position rather than the real one, so nothing here can change the game
+    public Spot findMove(Position position){
+        return think(position, 0, stops.get());
+    }
+    //Finds the computer's move with at most the given milliseconds to think, instead of its normal time limit
+    //This is how it plays on a clock, the searches stop once their slice of the time is used up
+    public Spot findMove(Position position, long millis){
+        return think(position, Math.max(1, millis), stops.get());
+    }
+    //Finds the move for a request made earlier on another thread, given what getStops() was when it was made, so a stop()
+    //in between still counts. With 0 milliseconds it thinks for its normal time
+    public Spot findMove(Position position, long millis, int stopsWhenAsked){
+        return think(position, Math.max(0, millis), stopsWhenAsked);
+    }
+    //True once the board has stopped the move being worked out
+    private boolean stopped(){
+        return stops.get() != asked;
+    }
+    //Finds a move with the given time slice, or the normal limits if the slice is 0, and adds it to the difficulty's metrics
+    private Spot think(Position position, long slice, int stopsWhenAsked){
+        asked = stopsWhenAsked;
+        long start = System.nanoTime();
+        lastDepth = 0;
+        lastTableProbes = 0;
+        lastTableHits = 0;
+        Spot move = decide(position, slice);
+        //A move nobody asked to stop is a real one, the others would only make the times look better than they are
+        if(move != null && !stopped()){
+            EngineMetrics metrics = EngineMetrics.of(difficulty);
+            metrics.recordMove(System.nanoTime() - start, lastNodes, lastDepth);
+            if(lastTableProbes > 0)
+                metrics.recordTable(lastTableProbes, lastTableHits);
+        }
+        return move;
+    }
+    private Spot decide(Position position, long slice){
+        //If the computer guessed this position while pondering, its answer may already be ready
+        Spot pondered = finishPondering(position, slice);
+        if(pondered != null){
+            lastScore = ponderSolved ? solver.getScore() : search.getBestScore();
+            lastNodes = ponderSolved ? solver.getNodes() : search.getNodes();
+            lastDepth = ponderSolved ? 0 : search.getDepthReached();
+            countTable(ponderSolved);
+            return pondered;
+        }
+        lastScore = 0;
+        lastNodes = 0;
+        //Pondering is over, so the searches can be let go again for this move. A stop() from here on stops them again,
+        //and one that already came is caught by the count, which it changed before stopping the searches
+        search.resume();
+        solver.resume();
+        monteCarlo.resume();
+        if(stopped()){
+            //Any legal move will do, nobody is going to play it
+            long moves = position.legalMoves(color);
+            return moves == 0 ? null : Spot.of(Long.numberOfTrailingZeros(moves));
+        }
+        //Without a slice the move gets the normal time, shared by the solver and the search that takes over if it runs out
+        long millis = slice != 0 ? slice : searchTimeLimit;
+        if(millis == 0)
+            return chooseMove(position, 0);
+        //Pondering is over by now, so the limits can be changed for this one move and put back afterwards
+        long deadline = System.nanoTime() + millis * 1000000;
+        applyTimeLimits(millis, millis);
+        try {
+            return chooseMove(position, deadline);
+        } finally {
+            applyTimeLimits(searchTimeLimit, solverTimeLimit);
+        }
+    }
+    private void applyTimeLimits(long searchMillis, long solverMillis){
+        search.setTimeLimit(searchMillis);
+        solver.setTimeLimit(solverMillis);
+        monteCarlo.setTimeLimit(searchMillis);
+    }
+    //Picks the move by difficulty. With a deadline (a System.nanoTime(), or 0 for none), the search that takes over from a
+    //solver that ran out of time only gets what's left
+    private Spot chooseMove(Position position, long deadline){
+        currentBoardState = position;
+        updateAvailable(); //Adds possible locations for the computer to play to respective lists
+        //If the computer can't play, then return null, signifying to the board the computer can't play
+        if(possibleSquares == 0)
+            return null;
+        //If the computer is on easy,
+        if(difficulty == Difficulty.EASY){
+            //From all possible locations to play, it chooses a random spot
+            long spots = possibleSquares;
+            for(int skip = random.nextInt(Long.bitCount(spots)); skip > 0; skip--)
+                spots &= spots - 1;
+            return Spot.of(Long.numberOfTrailingZeros(spots));
+        //If the computer is on medium,
+        } else if(difficulty == Difficulty.MEDIUM){
+            //Looks at all available moves, pick one with most flips
+            return bestMove(possibleSquares);
+        //If the computer is on expert,
+        } else if(difficulty == Difficulty.EXPERT){
+            //Plays straight from the opening book while the position is in it
+            if(book != null){
+                int square = book.lookup(currentBoardState, color);
+                EngineMetrics.of(difficulty).recordBook(square >= 0);
+                if(square >= 0)
+                    return Spot.of(square);
+            }
+            //Near the end of the game, tries to solve it outright
+            if(currentBoardState.countEmpty() <= endgameEmpties){
+                int square = solver.solve(currentBoardState, color, true);
+                lastNodes = solver.getNodes();
+                countTable(true);
+                //If the solver ran out of time it gives -1, and the normal search takes over
+                if(square >= 0){
+                    lastScore = solver.getScore();
+                    return Spot.of(square);
+                }
+                //Unless it was stopped, then any legal move will do since nobody is going to play it
+                if(stopped())
+                    return Spot.of(Long.numberOfTrailingZeros(possibleSquares));
+                if(deadline != 0)
+                    search.setTimeLimit(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            }
+            //Searches as many moves ahead as it has time for, and picks the move that works out best
+            int square = search.findBestMove(currentBoardState, color);
+            lastScore = search.getBestScore();
+            lastNodes += search.getNodes();
+            lastDepth = search.getDepthReached();
+            countTable(false);
+            return Spot.of(square);
+        //If the computer is on Monte Carlo,
+        } else if(difficulty == Difficulty.MONTE_CARLO){
+            //Seeded from the computer's random, so games limited by playouts can be played again exactly on one thread
+            monteCarlo.setSeed(random.nextLong());
+            int square = monteCarlo.findBestMove(currentBoardState, color);
+            lastNodes = monteCarlo.getPlayouts();
+            return Spot.of(square);
+        } else { //Difficulty must be hard, computer object doesn't exist if PVP
+            //Looks at all available moves and sorts by category (best-worst: corner, edge, body, second corner, second edge)
+            //Picks the most flips by categorical preference
+            return findBestTurn();
+        }
+    }
+    //Runs on the pondering thread. Guesses the other player's reply, then thinks about the answer with no limits until stopped
+    //Returns the best square found, or -1 if there was nothing worth pondering
+    private int ponderOn(Position start){
+        //The search usually remembers what it expected the reply to be, otherwise a quick shallow search guesses it
+        int reply = search.getHashMove(start, -color);
+        if(reply < 0){
+            search.setTimeLimit(0);
+            search.setMaxDepth(4);
+            reply = search.findBestMove(start, -color);
+            search.setMaxDepth(60);
+            search.setTimeLimit(searchTimeLimit);
+        }
+        Position predicted = start.copy();
+        predicted.play(-color, reply);
+        //Nothing to think about if the computer would have to pass, or the book answers instantly anyway
+        if(ponderStop || predicted.legalMoves(color) == 0 || (book != null && book.lookup(predicted, color) >= 0))
+            return -1;
+        boolean solving = predicted.countEmpty() <= endgameEmpties;
+        ponderLimit = solving ? solverTimeLimit : searchTimeLimit;
+        ponderPosition = predicted;
+        try {
+            search.setNodeLimit(0);
+            solver.setNodeLimit(0);
+            if(solving){
+                solver.setTimeLimit(0);
+                int square = solver.solve(predicted, color, true);
+                ponderSolved = square >= 0;
+                if(square >= 0 || ponderStop)
+                    return square;
+            }
+            ponderLimit = searchTimeLimit;
+            search.setTimeLimit(0);
+            return search.findBestMove(predicted, color);
+        } finally {
+            //Puts the normal limits back for findMove
+            search.setTimeLimit(searchTimeLimit);
+            search.setNodeLimit(nodeLimit);
+            solver.setTimeLimit(solverTimeLimit);
+            solver.setNodeLimit(nodeLimit);
+        }
+    }
+    //Adds the table lookups of the solver's or the search's last run to this move's
+    private void countTable(boolean solver){
+        lastTableProbes += solver ? this.solver.getTableProbes() : search.getTableProbes();
+        lastTableHits += solver ? this.solver.getTableHits() : search.getTableHits();
+    }
+    //Ends any pondering before a real move is searched for
+    //If the guess was right, the pondering search gets whatever is left of the normal thinking time and its move is used
+    //If not, it's stopped straight away (what it stored in the table stays there and may still help)
+    //A time slice other than 0 replaces the normal thinking time
+    private Spot finishPondering(Position position, long slice){
+        if(pondering == null)
+            return null;
+        Position predicted = ponderPosition;
+        boolean hit = !ponderCancelled && predicted != null && difficulty == Difficulty.EXPERT && nodeLimit == 0
+                && predicted.getBlack() == position.getBlack() && predicted.getWhite() == position.getWhite();
+        if(hit){
+            //The player's thinking time counts as the computer's, so once it has thought as long as it normally would it answers at once
+            long thought = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - ponderStart);
+            long limit = slice != 0 ? slice : ponderLimit;
+            try {
+                if(limit == 0)
+                    pondering.get();
+                else if(limit > thought)
+                    pondering.get(limit - thought, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException | InterruptedException | ExecutionException e){
+                //Out of time, the search is stopped below and gives the best move it has finished
+            }
+        }
+        int square = stopPondering();
+        if(hit && square >= 0 && position.isLegal(color, square / 8, square % 8))
+            return Spot.of(square);
+        return null;
+    }
+    //Stops the pondering thread and waits for it to be done, returning the square it was going to play (-1 if none)
+    private int stopPondering(){
+        if(pondering == null)
+            return -1;
+        Future<Integer> task = pondering;
+        pondering = null;
+        ponderStop = true;
+        //The stop holds even if a search hadn't got going yet, so asking once is enough
+        search.stop();
+        solver.stop();
+        try {
+            return task.get();
+        } catch (InterruptedException | ExecutionException e){
+            return -1;
+        }
+    }
+    //Updates the possible locations for the computer to play
+    private void updateAvailable(){
+        possibleSquares = currentBoardState.legalMoves(color);
+    }
+    //Finds the best move (most flips) among the given squares (Medium level computer's method of choosing)
+    //Also used by hard computer for each category of squares
+    private Spot bestMove(long squares) {
+        //Look at all available moves, pick one with most flips
+        int bestSquare = -1;
+        int bestFlips = -1;
+
+        while(squares != 0){
+            int square = Long.numberOfTrailingZeros(squares);
+            squares &= squares - 1;
+            int num = countFlips(square);
+
+            if (num > bestFlips) {
+                bestFlips = num;
+                bestSquare = square;
+            }
+        }
+        return Spot.of(bestSquare);
+    }
+    //Finds the absolute best spot to go right now (hard level computer's method of choosing)
+    //Corners are the best, otherwise we want an outside edge, then a body spot
+    //Second to worst is an edge on the second to last row/col
+    //Worse would be second to last row/col
+    private Spot findBestTurn() {
+        //If there are spots in these categories, returns the best spot for the most preferable category
+        if ((possibleSquares & CORNER) != 0) return bestMove(possibleSquares & CORNER);
+        if ((possibleSquares & EDGE) != 0) return bestMove(possibleSquares & EDGE);
+        if ((possibleSquares & BODY) != 0) return bestMove(possibleSquares & BODY);
+        if ((possibleSquares & SECOND_EDGE) != 0) return bestMove(possibleSquares & SECOND_EDGE);
+        //If no better category has spots, finds best move among
+        return bestMove(possibleSquares & SECOND_CORNER);
+    }
+    //Counts how many pieces would be flipped by playing on the square
+    private int countFlips(int square) {
+        return Long.bitCount(currentBoardState.flipsFor(color, square));
+    }
+
+}
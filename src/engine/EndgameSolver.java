@@ -0,0 +1,347 @@
+package engine;
+
+//Searches to the very end of the game to find the exact final disc difference (or just win/draw/loss)
+//Near the end there are few empty squares left, so the whole game tree can be searched with the right move ordering:
+//fastest-first (moves that leave the opponent the fewest replies) while many squares are empty, then parity
+//(squares in regions with an odd number of empties first), and hand-written code for the last three empty squares
+public class EndgameSolver {
+
+    private static final int INFINITY = 1000;
+    //The four 4x4 corners of the board, used for parity ordering
+    private static final long[] QUADRANTS = {0x000000000F0F0F0FL, 0x00000000F0F0F0F0L, 0x0F0F0F0F00000000L, 0xF0F0F0F000000000L};
+    private static final long CORNERS = 0x8100000000000081L;
+    //Below this many empties, sorting moves by opponent mobility costs more than it saves
+    private static final int FASTEST_FIRST_EMPTIES = 7;
+    //Below this many empties, the table costs more than it saves
+    private static final int TABLE_EMPTIES = 10;
+
+    //Budget for one solve, 0 means no limit
+    private long timeLimit = 0;
+    private long nodeLimit = 0;
+
+    //Made on the first solve, so changing the size before then doesn't allocate a table only to throw it away
+    private int hashMegabytes = 16;
+    private TranspositionTable table;
+    //Move lists and sort keys for each number of empties, reused so sorting never allocates
+    private final int[][] moveBuffer = new int[61][36];
+    private final int[][] keyBuffer = new int[61][36];
+
+    //State of the solve in progress
+    private long nodes;
+    private long tableProbes;
+    private long tableHits;
+    private long deadline;
+    private boolean stopped;
+    private volatile boolean abort;
+
+    //Results of the last solve
+    private int bestMove = -1;
+    private int score;
+
+    //Sets how many milliseconds a solve may take (0 for no limit)
+    public void setTimeLimit(long millis){
+        timeLimit = millis;
+    }
+
+    //Sets how many nodes a solve may visit (0 for no limit)
+    public void setNodeLimit(long limit){
+        nodeLimit = limit;
+    }
+
+    //Replaces the transposition table with one of the given size
+    public void setHashSize(int megabytes){
+        hashMegabytes = megabytes;
+        table = null;
+    }
+
+    //Forgets every remembered position, for when a new game starts
+    public void clearTable(){
+        if(table != null)
+            table.clear();
+    }
+
+    //Asks a running solve to give up, it then returns -1
+    //Every solve after this gives up straight away too, until resume() is called
+    public void stop(){
+        abort = true;
+    }
+
+    //Lets solves run again after stop()
+    public void resume(){
+        abort = false;
+    }
+
+    //Accessors for the results of the last solve
+    public int getBestMove(){
+        return bestMove;
+    }
+
+    //Final disc difference for the side to move (or just its sign, when not solving exactly)
+    public int getScore(){
+        return score;
+    }
+
+    public long getNodes(){
+        return nodes;
+    }
+
+    //How often the last solve looked in the table, and how often it had the position
+    public long getTableProbes(){
+        return tableProbes;
+    }
+
+    public long getTableHits(){
+        return tableHits;
+    }
+
+    //Finds the best square for the given color, with the exact final disc difference if "exact", or just whether it
+    //wins, draws or loses if not (much faster). Returns -1 if there is no legal move or the budget ran out first.
+    public int solve(Position position, int color, boolean exact){
+        long own = position.discs(color);
+        long opp = position.discs(-color);
+        if(table == null)
+            table = new TranspositionTable(hashMegabytes);
+        table.newSearch();
+        nodes = 0;
+        tableProbes = 0;
+        tableHits = 0;
+        stopped = false;
+        deadline = timeLimit > 0 ? System.nanoTime() + timeLimit * 1000000L : Long.MAX_VALUE;
+        bestMove = -1;
+        score = 0;
+
+        int empties = 64 - Long.bitCount(own | opp);
+        long moves = Position.moves(own, opp);
+        if(moves == 0)
+            return -1;
+        //A win/draw/loss solve only needs to know which side of zero the score is on
+        int alpha = exact ? -INFINITY : -1;
+        int beta = exact ? INFINITY : 1;
+
+        int count = sortMoves(own, opp, moves, empties, -1);
+        int[] list = moveBuffer[empties];
+        int best = -INFINITY;
+        int move = -1;
+        for(int i = 0; i < count; i++){
+            int square = list[i];
+            long f = Position.flips(own, opp, square);
+            int value = -search(opp & ~f, own | f | (1L << square), -beta, -Math.max(alpha, best), false, empties - 1);
+            if(stopped)
+                return -1;
+            if(value > best){
+                best = value;
+                move = square;
+                if(best >= beta)
+                    break;
+            }
+        }
+        bestMove = move;
+        score = exact ? best : Integer.signum(best);
+        return bestMove;
+    }
+
+    private int search(long own, long opp, int alpha, int beta, boolean passed, int empties){
+        nodes++;
+        if((nodes & 1023) == 0)
+            checkLimits();
+        if(stopped)
+            return 0;
+        if(empties <= 3)
+            return searchLast(own, opp, alpha, beta, passed, empties);
+
+        long moves = Position.moves(own, opp);
+        if(moves == 0){
+            if(passed)
+                return diff(own, opp);
+            return -search(opp, own, -beta, -alpha, true, empties);
+        }
+
+        //Deep enough nodes are worth remembering
+        long hash = 0;
+        int ttMove = -1;
+        if(empties >= TABLE_EMPTIES){
+            hash = Position.hash(own, opp);
+            long entry = table.probe(hash);
+            tableProbes++;
+            if(entry != 0){
+                tableHits++;
+                ttMove = TranspositionTable.move(entry);
+                int ttScore = TranspositionTable.score(entry);
+                int bound = TranspositionTable.bound(entry);
+                //The depth of an endgame entry is always the number of empties, so it is always deep enough
+                if(bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER && ttScore >= beta)
+                        || (bound == TranspositionTable.UPPER && ttScore <= alpha))
+                    return ttScore;
+            }
+        }
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestSquare = -1;
+        if(empties > FASTEST_FIRST_EMPTIES){
+            int count = sortMoves(own, opp, moves, empties, ttMove);
+            int[] list = moveBuffer[empties];
+            for(int i = 0; i < count; i++){
+                int square = list[i];
+                long f = Position.flips(own, opp, square);
+                int value = -search(opp & ~f, own | f | (1L << square), -beta, -alpha, false, empties - 1);
+                if(value > best){
+                    best = value;
+                    bestSquare = square;
+                    if(value > alpha){
+                        alpha = value;
+                        if(alpha >= beta)
+                            break;
+                    }
+                }
+            }
+        } else {
+            //Parity ordering: squares in quadrants with an odd number of empties first, then the rest
+            long empty = ~(own | opp);
+            long odd = 0;
+            for(long q : QUADRANTS)
+                if((Long.bitCount(empty & q) & 1) != 0)
+                    odd |= q;
+            for(int pass = 0; pass < 2 && alpha < beta; pass++){
+                long group = moves & (pass == 0 ? odd : ~odd);
+                while(group != 0){
+                    int square = Long.numberOfTrailingZeros(group);
+                    group &= group - 1;
+                    long f = Position.flips(own, opp, square);
+                    int value = -search(opp & ~f, own | f | (1L << square), -beta, -alpha, false, empties - 1);
+                    if(value > best){
+                        best = value;
+                        bestSquare = square;
+                        if(value > alpha){
+                            alpha = value;
+                            if(alpha >= beta)
+                                break;
+                        }
+                    }
+                }
+            }
+        }
+
+        if(empties >= TABLE_EMPTIES && !stopped){
+            int bound = best <= originalAlpha ? TranspositionTable.UPPER : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+            table.store(hash, empties, bound, best, bestSquare);
+        }
+        return best;
+    }
+
+    //The last three empty squares, searched by walking the empty squares directly instead of generating moves
+    private int searchLast(long own, long opp, int alpha, int beta, boolean passed, int empties){
+        long empty = ~(own | opp);
+        if(empties == 0)
+            return diff(own, opp);
+        if(empties == 1)
+            return lastSquare(own, opp, Long.numberOfTrailingZeros(empty));
+
+        //With three empties, a square alone in its quadrant goes first (parity)
+        if(empties == 3){
+            long first = 0;
+            for(long q : QUADRANTS)
+                if(Long.bitCount(empty & q) == 1)
+                    first |= empty & q;
+            return lastSquares(own, opp, alpha, beta, passed, empties, first, empty & ~first);
+        }
+        return lastSquares(own, opp, alpha, beta, passed, empties, empty, 0);
+    }
+
+    //Tries the squares in "first", then those in "second"
+    private int lastSquares(long own, long opp, int alpha, int beta, boolean passed, int empties, long first, long second){
+        int best = -INFINITY;
+        for(int pass = 0; pass < 2; pass++){
+            long group = pass == 0 ? first : second;
+            while(group != 0){
+                int square = Long.numberOfTrailingZeros(group);
+                group &= group - 1;
+                long f = Position.flips(own, opp, square);
+                if(f == 0)
+                    continue;
+                nodes++;
+                long newOwn = opp & ~f;
+                long newOpp = own | f | (1L << square);
+                int value = empties == 2
+                        ? -lastSquare(newOwn, newOpp, Long.numberOfTrailingZeros(~(newOwn | newOpp)))
+                        : -searchLast(newOwn, newOpp, -beta, -alpha, false, empties - 1);
+                if(value > best){
+                    best = value;
+                    if(value > alpha){
+                        alpha = value;
+                        if(alpha >= beta)
+                            return best;
+                    }
+                }
+            }
+        }
+        if(best == -INFINITY){
+            //No move here, so the opponent goes, and if they can't either the game is over
+            if(passed)
+                return diff(own, opp);
+            return -searchLast(opp, own, -beta, -alpha, true, empties);
+        }
+        return best;
+    }
+
+    //Final score when only one square is left: whoever can play there does, otherwise the game just ends
+    private int lastSquare(long own, long opp, int square){
+        nodes++;
+        int d = diff(own, opp);
+        int flipped = Long.bitCount(Position.flips(own, opp, square));
+        if(flipped != 0)
+            return d + 2 * flipped + 1;
+        flipped = Long.bitCount(Position.flips(opp, own, square));
+        if(flipped != 0)
+            return d - 2 * flipped - 1;
+        return d;
+    }
+
+    //Fills the move buffer for this many empties with the moves, fastest-first: the fewer replies a move leaves the
+    //opponent the better, with corners and parity as tie breakers and the table's move ahead of everything
+    private int sortMoves(long own, long opp, long moves, int empties, int ttMove){
+        int[] list = moveBuffer[empties];
+        int[] keys = keyBuffer[empties];
+        long empty = ~(own | opp);
+        int count = 0;
+        while(moves != 0){
+            int square = Long.numberOfTrailingZeros(moves);
+            long placed = moves & -moves;
+            moves &= moves - 1;
+            long f = Position.flips(own, opp, square);
+            long replies = Position.moves(opp & ~f, own | f | placed);
+            int key = Long.bitCount(replies) * 16 + Long.bitCount(replies & CORNERS) * 32;
+            if((placed & CORNERS) != 0) key -= 16;
+            for(long q : QUADRANTS)
+                if((placed & q) != 0 && (Long.bitCount(empty & q) & 1) != 0)
+                    key -= 4;
+            if(square == ttMove) key = -INFINITY;
+            //Insertion sort, the lists are short
+            int i = count++;
+            while(i > 0 && keys[i - 1] > key){
+                keys[i] = keys[i - 1];
+                list[i] = list[i - 1];
+                i--;
+            }
+            keys[i] = key;
+            list[i] = square;
+        }
+        return count;
+    }
+
+    //Disc difference for the player owning "own"
+    private static int diff(long own, long opp){
+        return Long.bitCount(own) - Long.bitCount(opp);
+    }
+
+    //Stops the solve once it has used up its time or nodes
+    private void checkLimits(){
+        if(abort)
+            stopped = true;
+        else if(nodeLimit > 0 && nodes >= nodeLimit)
+            stopped = true;
+        else if(System.nanoTime() >= deadline)
+            stopped = true;
+    }
+}
@@ -0,0 +1,182 @@
+package engine;
+
+import enums.Difficulty;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+//How the computer has been doing at each difficulty: how many moves, how long they took, how many positions it searched and
+//how deep, and how often the transposition table and opening book had the answer
+//Every Computer adds its moves here, so the numbers cover every game in the program (all the games of a tournament, say).
+//Read them with the getters, or from jconsole or any JMX metrics scraper, where each difficulty shows up as
+//othello:type=Engine,difficulty=<difficulty>. Recording a move is a few atomic adds and never allocates anything.
+public class EngineMetrics implements EngineMetricsMBean {
+
+    private static final EngineMetrics[] METRICS = new EngineMetrics[Difficulty.values().length];
+
+    static {
+        for(Difficulty d : Difficulty.values()){
+            METRICS[d.ordinal()] = new EngineMetrics(d);
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(METRICS[d.ordinal()],
+                        new ObjectName("othello:type=Engine,difficulty=" + d));
+            } catch (JMException | SecurityException e){
+                //Still recorded and readable with the getters, just not over JMX
+                System.out.println("ERROR: Engine metrics for " + d + " couldn't be published over JMX.");
+            }
+        }
+    }
+
+    private final Difficulty difficulty;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLong moves = new AtomicLong();
+    private final AtomicLong nodes = new AtomicLong();
+    private final AtomicLong searchNanos = new AtomicLong();
+    //Depths only count for moves that came from the alpha-beta search
+    private final AtomicLong searches = new AtomicLong();
+    private final AtomicLong depthTotal = new AtomicLong();
+    private volatile int lastDepth;
+    private final AtomicLong tableProbes = new AtomicLong();
+    private final AtomicLong tableHits = new AtomicLong();
+    private final AtomicLong bookLookups = new AtomicLong();
+    private final AtomicLong bookHits = new AtomicLong();
+
+    private EngineMetrics(Difficulty difficulty){
+        this.difficulty = difficulty;
+    }
+
+    //Metrics of the given difficulty
+    public static EngineMetrics of(Difficulty difficulty){
+        return METRICS[difficulty.ordinal()];
+    }
+
+    public Difficulty getDifficulty(){
+        return difficulty;
+    }
+
+    //Adds one move: how long it took, the positions (or Monte Carlo playouts) looked at, and the depth the search finished
+    //(0 if the move didn't come from the alpha-beta search)
+    void recordMove(long nanos, long nodesSearched, int depth){
+        latency.record(nanos / 1000);
+        moves.incrementAndGet();
+        nodes.addAndGet(nodesSearched);
+        searchNanos.addAndGet(nanos);
+        if(depth > 0){
+            searches.incrementAndGet();
+            depthTotal.addAndGet(depth);
+            lastDepth = depth;
+        }
+    }
+
+    //Adds the transposition table lookups of one search, and how many found the position
+    void recordTable(long probes, long hits){
+        tableProbes.addAndGet(probes);
+        tableHits.addAndGet(hits);
+    }
+
+    //Adds one opening book lookup, and whether the position was in the book
+    void recordBook(boolean hit){
+        bookLookups.incrementAndGet();
+        if(hit)
+            bookHits.incrementAndGet();
+    }
+
+    //The move times themselves, for percentiles other than the ones below
+    public LatencyHistogram getLatency(){
+        return latency;
+    }
+
+    @Override
+    public long getMoves(){
+        return moves.get();
+    }
+
+    @Override
+    public long getNodes(){
+        return nodes.get();
+    }
+
+    @Override
+    public double getNodesPerSecond(){
+        long nanos = searchNanos.get();
+        return nanos == 0 ? 0 : nodes.get() * 1e9 / nanos;
+    }
+
+    @Override
+    public int getLastDepth(){
+        return lastDepth;
+    }
+
+    @Override
+    public double getAverageDepth(){
+        long n = searches.get();
+        return n == 0 ? 0 : (double) depthTotal.get() / n;
+    }
+
+    @Override
+    public double getTableHitRate(){
+        long probes = tableProbes.get();
+        return probes == 0 ? 0 : (double) tableHits.get() / probes;
+    }
+
+    @Override
+    public double getBookHitRate(){
+        long lookups = bookLookups.get();
+        return lookups == 0 ? 0 : (double) bookHits.get() / lookups;
+    }
+
+    @Override
+    public double getMeanMoveMillis(){
+        return latency.getMean() / 1000;
+    }
+
+    @Override
+    public double getMoveMillisP50(){
+        return latency.getPercentile(50) / 1000.0;
+    }
+
+    @Override
+    public double getMoveMillisP90(){
+        return latency.getPercentile(90) / 1000.0;
+    }
+
+    @Override
+    public double getMoveMillisP99(){
+        return latency.getPercentile(99) / 1000.0;
+    }
+
+    @Override
+    public double getMoveMillisP999(){
+        return latency.getPercentile(99.9) / 1000.0;
+    }
+
+    @Override
+    public double getMaxMoveMillis(){
+        return latency.getMax() / 1000.0;
+    }
+
+    //Starts counting again from nothing, can also be called from jconsole
+    @Override
+    public void reset(){
+        latency.reset();
+        moves.set(0);
+        nodes.set(0);
+        searchNanos.set(0);
+        searches.set(0);
+        depthTotal.set(0);
+        lastDepth = 0;
+        tableProbes.set(0);
+        tableHits.set(0);
+        bookLookups.set(0);
+        bookHits.set(0);
+    }
+
+    //One line summary, for the command line tools
+    @Override
+    public String toString(){
+        return String.format("%s: %d moves, p50 %.3f ms, p99 %.3f ms, max %.3f ms, %.0f nodes/s, depth %.1f, table hits %.1f%%, book hits %.1f%%",
+                difficulty, getMoves(), getMoveMillisP50(), getMoveMillisP99(), getMaxMoveMillis(), getNodesPerSecond(),
+                getAverageDepth(), 100 * getTableHitRate(), 100 * getBookHitRate());
+    }
+}
@@ -0,0 +1,34 @@
+package engine;
+
+//What jconsole and other JMX tools see of EngineMetrics, one of these is registered for each difficulty
+//as othello:type=Engine,difficulty=<difficulty>. Times are in milliseconds, rates are fractions from 0 to 1.
+public interface EngineMetricsMBean {
+
+    long getMoves();
+
+    long getNodes();
+
+    double getNodesPerSecond();
+
+    int getLastDepth();
+
+    double getAverageDepth();
+
+    double getTableHitRate();
+
+    double getBookHitRate();
+
+    double getMeanMoveMillis();
+
+    double getMoveMillisP50();
+
+    double getMoveMillisP90();
+
+    double getMoveMillisP99();
+
+    double getMoveMillisP999();
+
+    double getMaxMoveMillis();
+
+    void reset();
+}
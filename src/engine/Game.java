@@ -0,0 +1,158 @@
+package engine;
+
+//The rules of a whole game of Othello, with nothing to do with the window: whose turn it is, playing, passing,
+//taking moves back and playing them again, and who won
+//The board, the computer players and the command line tools all play through this, so the rules only live in one place.
+public class Game {
+
+    public static final int BLACK = Position.BLACK;
+    public static final int WHITE = Position.WHITE;
+
+    private final Position start;
+    private final int startColor;
+    private Position position;
+    private final MoveHistory history;
+    private int toMove;
+
+    //A new game from the starting position, white moves first
+    public Game(){
+        this(new Position(), WHITE);
+    }
+
+    //A game starting from any position, with the given color to move
+    public Game(Position start, int toMove){
+        this.start = start.copy();
+        this.startColor = toMove;
+        this.position = start.copy();
+        this.toMove = toMove;
+        history = new MoveHistory(start, toMove);
+    }
+
+    //Puts the board back to where the game started and forgets every move
+    public void reset(){
+        position = start.copy();
+        toMove = startColor;
+        history.clear();
+    }
+
+    //Color whose turn it is
+    public int getToMove(){
+        return toMove;
+    }
+
+    //Squares the player to move can play, one bit per square (r * 8 + c)
+    public long legalMoves(){
+        return position.legalMoves(toMove);
+    }
+
+    public long legalMoves(int color){
+        return position.legalMoves(color);
+    }
+
+    public boolean isLegal(int square){
+        return square >= 0 && square < 64 && (legalMoves() & (1L << square)) != 0;
+    }
+
+    //Plays a move for whoever's turn it is and hands the turn over
+    //Returns the discs it flipped, or 0 (and changes nothing) if the move isn't legal
+    public long play(int square){
+        MoveEvent event = new MoveEvent();
+        event.begin();
+        if(!isLegal(square)) return 0;
+        long flips = position.play(toMove, square);
+        history.add(toMove, square, flips);
+        if(event.shouldCommit()){
+            event.square = square;
+            event.color = toMove;
+            event.flips = Long.bitCount(flips);
+            event.empties = position.countEmpty();
+            event.commit();
+        }
+        toMove = -toMove;
+        return flips;
+    }
+
+    //True when the player to move has nowhere to play but the other player does, so they have to pass
+    public boolean mustPass(){
+        return legalMoves() == 0 && legalMoves(-toMove) != 0;
+    }
+
+    //Hands the turn over without a move, only allowed when the player to move has to pass
+    public void pass(){
+        if(!mustPass())
+            throw new IllegalStateException("The player to move has a legal move, or the game is over");
+        toMove = -toMove;
+    }
+
+    //The game is over when neither player can move (which includes a full board)
+    public boolean isOver(){
+        return legalMoves(WHITE) == 0 && legalMoves(BLACK) == 0;
+    }
+
+    //How many more discs the given color has than the other one
+    public int getResult(int color){
+        return position.count(color) - position.count(-color);
+    }
+
+    //Color with the most discs, or 0 for a tie
+    public int getWinner(){
+        return Integer.signum(getResult(WHITE)) * WHITE;
+    }
+
+    //Takes back the last move, and it's then the turn of whoever made it. Returns false if nothing has been played
+    public boolean undo(){
+        if(!history.canUndo()) return false;
+        goTo(history.getPly() - 1);
+        return true;
+    }
+
+    //Plays the last taken back move again. Returns false if there's nothing to redo
+    public boolean redo(){
+        if(!history.canRedo()) return false;
+        goTo(history.getPly() + 1);
+        return true;
+    }
+
+    //Goes straight to how the game was after the given number of moves from the start
+    public void goTo(int ply){
+        HistoryEvent event = new HistoryEvent();
+        event.begin();
+        int from = history.getPly();
+        history.goTo(position, ply);
+        if(event.shouldCommit()){
+            event.fromPly = from;
+            event.toPly = history.getPly();
+            event.empties = position.countEmpty();
+            event.commit();
+        }
+        //The history remembers who was to play at every ply, which gets passes right without storing them
+        toMove = history.getToMove();
+    }
+
+    //Every move played so far (and any taken back that could be redone)
+    public MoveHistory getHistory(){
+        return history;
+    }
+
+    //Read-only views of the position
+    public int get(int r, int c){
+        return position.get(r, c);
+    }
+
+    public long discs(int color){
+        return position.discs(color);
+    }
+
+    public int count(int color){
+        return position.count(color);
+    }
+
+    public int countEmpty(){
+        return position.countEmpty();
+    }
+
+    //A copy of the position, safe to hand to anything that might change it
+    public Position getPosition(){
+        return position.copy();
+    }
+}
@@ -0,0 +1,177 @@
+package engine;
+
+//Chess-style clocks for both players, and the time manager that decides how long a computer may think about each move
+//Three kinds of time control:
+//  total time plus an increment: each player has a bank of time for the whole game, and gets the increment back after every move
+//  a fixed time per move: each move must be made within the same amount of time, and unused time isn't kept
+//  untimed: nobody can run out, the clock just adds up how long each player has taken
+//Only one player's clock runs at a time. Everything is synchronized, so the board's engine thread can read it safely.
+public class GameClock {
+
+    //How the clock is set up, in milliseconds
+    private final long total;
+    private final long increment;
+    private final long perMove;
+
+    //Time used by each color so far (white at 0, black at 1), not counting the move being thought about now
+    private final long[] used = new long[2];
+    //Time each color has had added from increments
+    private final long[] bonus = new long[2];
+    //Longest single move each color has taken, for the fixed time per move control
+    private final long[] longestMove = new long[2];
+    //Color whose clock is running (0 for neither), and since when
+    private int running = 0;
+    private long runningSince;
+
+    private GameClock(long total, long increment, long perMove){
+        this.total = total;
+        this.increment = increment;
+        this.perMove = perMove;
+    }
+
+    //Each player gets the total for the whole game, plus the increment after each of their moves
+    public static GameClock withIncrement(long totalMillis, long incrementMillis){
+        return new GameClock(totalMillis, incrementMillis, 0);
+    }
+
+    //Every move has to be made within the given time
+    public static GameClock perMove(long millis){
+        return new GameClock(0, 0, millis);
+    }
+
+    //Nobody runs out of time, the clock only keeps track of time used
+    public static GameClock untimed(){
+        return new GameClock(0, 0, 0);
+    }
+
+    //Reads a time control in milliseconds: "total+increment" (like "300000+5000"), "total", or "time/move" (like "2000/move")
+    //Null or an empty string means untimed
+    public static GameClock parse(String control){
+        if(control == null || control.trim().isEmpty())
+            return untimed();
+        control = control.trim();
+        if(control.endsWith("/move"))
+            return perMove(Long.parseLong(control.substring(0, control.length() - 5)));
+        int plus = control.indexOf('+');
+        if(plus < 0)
+            return withIncrement(Long.parseLong(control), 0);
+        return withIncrement(Long.parseLong(control.substring(0, plus)), Long.parseLong(control.substring(plus + 1)));
+    }
+
+    //A new clock with the same time control and no time used, for the next game
+    public GameClock copy(){
+        return new GameClock(total, increment, perMove);
+    }
+
+    public boolean isTimed(){
+        return total > 0 || perMove > 0;
+    }
+
+    public boolean isPerMove(){
+        return perMove > 0;
+    }
+
+    //Puts both clocks back to the start and stops them
+    public synchronized void reset(){
+        used[0] = used[1] = 0;
+        bonus[0] = bonus[1] = 0;
+        longestMove[0] = longestMove[1] = 0;
+        running = 0;
+    }
+
+    //Starts the given color's clock, charging whoever's clock was running up to now (without an increment, they didn't move)
+    public synchronized void start(int color){
+        long now = System.nanoTime();
+        charge(now);
+        running = color;
+        runningSince = now;
+    }
+
+    //The running player finished their move at the given System.nanoTime(): their clock stops, and they get their increment
+    //Nobody's clock runs until start() is called again, so time between finishing a move and showing it isn't counted
+    public synchronized void press(long at){
+        int color = running;
+        if(color == 0)
+            return;
+        charge(at);
+        //A move made after the flag fell doesn't earn anything back
+        if(remaining(color) > 0)
+            bonus[index(color)] += increment;
+        running = 0;
+    }
+
+    public synchronized void press(){
+        press(System.nanoTime());
+    }
+
+    //Stops whichever clock is running, without an increment, like at the end of the game
+    public synchronized void stop(){
+        charge(System.nanoTime());
+        running = 0;
+    }
+
+    private void charge(long now){
+        if(running == 0)
+            return;
+        long took = Math.max(0, (now - runningSince) / 1000000);
+        int i = index(running);
+        used[i] += took;
+        longestMove[i] = Math.max(longestMove[i], took);
+        runningSince = now;
+    }
+
+    //Color whose clock is running, or 0 if neither is
+    public synchronized int getRunning(){
+        return running;
+    }
+
+    //Milliseconds the color has used in the whole game, including the move being thought about now
+    public synchronized long used(int color){
+        return used[index(color)] + current(color);
+    }
+
+    //Milliseconds the color has left: for the whole game with total plus increment, or for this move with a fixed time per move
+    //Untimed clocks never run out, so this is always Long.MAX_VALUE for them
+    public synchronized long remaining(int color){
+        if(perMove > 0)
+            return perMove - current(color);
+        if(total > 0)
+            return total + bonus[index(color)] - used(color);
+        return Long.MAX_VALUE;
+    }
+
+    //True once the color has run out of time, which loses them the game
+    public synchronized boolean isFlagged(int color){
+        if(perMove > 0)
+            return longestMove[index(color)] > perMove || current(color) > perMove;
+        return total > 0 && remaining(color) <= 0;
+    }
+
+    //The time manager: how many milliseconds the color should spend on the move it's about to make, with the given number of
+    //empty squares left. Gives 0 when the clock is untimed, meaning use the normal limits
+    //With a bank of time, it's shared out over the moves the color still has to make (about half the empty squares), keeping a
+    //couple of moves in reserve, plus most of the increment since that comes straight back. It never bets more than half of
+    //what's left on one move, so a search that runs a little over can't lose on time.
+    public synchronized long moveTime(int color, int empties){
+        if(perMove > 0)
+            //A little is held back for the time between the search stopping and the move being made
+            return Math.max(1, perMove - Math.min(100, perMove / 4));
+        if(total == 0)
+            return 0;
+        long left = remaining(color);
+        if(left <= 0)
+            return 1;
+        long movesLeft = Math.max(1, (empties + 1) / 2);
+        long slice = left / (movesLeft + 2) + increment * 3 / 4;
+        return Math.max(1, Math.min(slice, left / 2));
+    }
+
+    //Milliseconds the color has been thinking about the move they're on, 0 if it isn't their turn
+    private long current(int color){
+        return running == color ? Math.max(0, (System.nanoTime() - runningSince) / 1000000) : 0;
+    }
+
+    private static int index(int color){
+        return color == Position.WHITE ? 0 : 1;
+    }
+}
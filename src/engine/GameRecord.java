@@ -0,0 +1,153 @@
+package engine;
+
+import enums.Difficulty;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+//One finished game, as it's stored in a game record file
+//Every ply is one byte: the square played (r * 8 + c), or PASS when the player to move couldn't.
+//The first mover is white, like on the board. The final pass pair that ends the game isn't stored.
+//
+//Layout of a record (little endian), a fixed 16 byte header followed by the plies:
+//  byte plies, byte white player, byte black player, byte white discs, byte black discs, byte random plies,
+//  short unused, int node limit, int time limit in ms, then one byte per ply
+//Players are Difficulty ordinals, with NONE meaning a person played that side.
+public class GameRecord {
+
+    public static final int PASS = 64;
+    static final int HEADER_BYTES = 16;
+    //A game has at most 60 moves, and a pass can only come between two of them
+    static final int MAX_PLIES = 120;
+
+    private final byte[] plies;
+    private final Difficulty white;
+    private final Difficulty black;
+    private final int whiteDiscs;
+    private final int blackDiscs;
+    private final int randomPlies;
+    private final int nodeLimit;
+    private final int timeLimit;
+
+    public GameRecord(byte[] plies, Difficulty white, Difficulty black, int whiteDiscs, int blackDiscs, int randomPlies, long nodeLimit, long timeLimit){
+        if(plies.length > MAX_PLIES)
+            throw new IllegalArgumentException("A game can't have " + plies.length + " plies");
+        this.plies = plies;
+        this.white = white;
+        this.black = black;
+        this.whiteDiscs = whiteDiscs;
+        this.blackDiscs = blackDiscs;
+        this.randomPlies = randomPlies;
+        this.nodeLimit = (int) Math.min(Integer.MAX_VALUE, nodeLimit);
+        this.timeLimit = (int) Math.min(Integer.MAX_VALUE, timeLimit);
+    }
+
+    //Makes a record of a game played from the starting position, putting a pass wherever the same color moved twice in a row
+    public static GameRecord fromGame(Game game, Difficulty white, Difficulty black, int randomPlies, long nodeLimit, long timeLimit){
+        MoveHistory history = game.getHistory();
+        byte[] plies = new byte[MAX_PLIES];
+        int count = 0;
+        int toMove = Position.WHITE;
+        for(int i = 0; i < history.getPly(); i++){
+            if(history.getColor(i) != toMove)
+                plies[count++] = PASS;
+            plies[count++] = (byte) history.getSquare(i);
+            toMove = -history.getColor(i);
+        }
+        return new GameRecord(Arrays.copyOf(plies, count), white, black, game.count(Position.WHITE), game.count(Position.BLACK),
+                randomPlies, nodeLimit, timeLimit);
+    }
+
+    //Reads the record starting at the buffer's position, leaving the position just past it
+    static GameRecord read(ByteBuffer in){
+        in.order(ByteOrder.LITTLE_ENDIAN);
+        int length = in.get() & 0xFF;
+        Difficulty[] difficulties = Difficulty.values();
+        Difficulty white = difficulties[in.get()];
+        Difficulty black = difficulties[in.get()];
+        int whiteDiscs = in.get();
+        int blackDiscs = in.get();
+        int randomPlies = in.get();
+        in.getShort();
+        int nodeLimit = in.getInt();
+        int timeLimit = in.getInt();
+        byte[] plies = new byte[length];
+        in.get(plies);
+        return new GameRecord(plies, white, black, whiteDiscs, blackDiscs, randomPlies, nodeLimit, timeLimit);
+    }
+
+    //Writes the record at the buffer's position
+    void write(ByteBuffer out){
+        out.order(ByteOrder.LITTLE_ENDIAN);
+        out.put((byte) plies.length);
+        out.put((byte) white.ordinal());
+        out.put((byte) black.ordinal());
+        out.put((byte) whiteDiscs);
+        out.put((byte) blackDiscs);
+        out.put((byte) randomPlies);
+        out.putShort((short) 0);
+        out.putInt(nodeLimit);
+        out.putInt(timeLimit);
+        out.put(plies);
+    }
+
+    //Bytes this record takes up in a file
+    int length(){
+        return HEADER_BYTES + plies.length;
+    }
+
+    //Plays the record through from the start and gives the final position
+    //Throws IllegalArgumentException if a stored move isn't legal, or a pass is stored when a move was possible
+    public Position replay(){
+        Position position = new Position();
+        int color = Position.WHITE;
+        for(byte ply : plies){
+            if(ply == PASS){
+                if(position.legalMoves(color) != 0)
+                    throw new IllegalArgumentException("Pass stored where a move was possible");
+            } else if(position.play(color, ply) == 0){
+                throw new IllegalArgumentException("Illegal move " + ply + " stored");
+            }
+            color = -color;
+        }
+        return position;
+    }
+
+    //Accessors for the parts of the record
+    public int getPlies(){
+        return plies.length;
+    }
+
+    //Square played at the given ply, or PASS
+    public int getPly(int index){
+        return plies[index];
+    }
+
+    public Difficulty getWhite(){
+        return white;
+    }
+
+    public Difficulty getBlack(){
+        return black;
+    }
+
+    public int getWhiteDiscs(){
+        return whiteDiscs;
+    }
+
+    public int getBlackDiscs(){
+        return blackDiscs;
+    }
+
+    public int getRandomPlies(){
+        return randomPlies;
+    }
+
+    public int getNodeLimit(){
+        return nodeLimit;
+    }
+
+    public int getTimeLimit(){
+        return timeLimit;
+    }
+}
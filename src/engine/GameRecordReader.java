@@ -0,0 +1,81 @@
+package engine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+//Reads games back out of a file written by GameRecordWriter, going straight to game N through the index
+//Both files are memory mapped, so opening even a huge file is instant and only the games looked at get read from disk.
+//A mapping can't be bigger than 2GB, so big files are mapped in 1GB pieces, each running a little into the next so a
+//record that starts near the end of one piece can still be read from it whole.
+public class GameRecordReader {
+
+    private static final int SEGMENT_BITS = 30;
+    private static final long SEGMENT_BYTES = 1L << SEGMENT_BITS;
+    //Longest a record can be, so every record starting in a piece fits in it
+    private static final int OVERLAP = GameRecord.HEADER_BYTES + GameRecord.MAX_PLIES;
+
+    private final MappedByteBuffer[] records;
+    private final MappedByteBuffer[] index;
+    private final long recordBytes;
+    private final long games;
+
+    private GameRecordReader(MappedByteBuffer[] records, long recordBytes, MappedByteBuffer[] index, long indexBytes){
+        this.records = records;
+        this.index = index;
+        this.recordBytes = recordBytes;
+        if(records.length == 0 || records[0].getInt(0) != GameRecordWriter.RECORD_MAGIC)
+            throw new IllegalArgumentException("Not a game record file");
+        if(index.length == 0 || index[0].getInt(0) != GameRecordWriter.INDEX_MAGIC)
+            throw new IllegalArgumentException("Not a game record index");
+        games = (indexBytes - GameRecordWriter.FILE_HEADER_BYTES) / 8;
+    }
+
+    //Maps the record file at the given path and its index
+    public static GameRecordReader open(String path) throws IOException {
+        try(FileChannel recordChannel = FileChannel.open(Paths.get(path), StandardOpenOption.READ);
+            FileChannel indexChannel = FileChannel.open(GameRecordWriter.indexPath(path), StandardOpenOption.READ)){
+            //The mappings stay valid after the channels are closed
+            return new GameRecordReader(map(recordChannel, OVERLAP), recordChannel.size(), map(indexChannel, 0), indexChannel.size());
+        }
+    }
+
+    private static MappedByteBuffer[] map(FileChannel channel, int overlap) throws IOException {
+        long size = channel.size();
+        MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((size + SEGMENT_BYTES - 1) >>> SEGMENT_BITS)];
+        for(int i = 0; i < segments.length; i++){
+            long start = (long) i << SEGMENT_BITS;
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(size - start, SEGMENT_BYTES + overlap));
+            segments[i].order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return segments;
+    }
+
+    //Number of games in the file
+    public long size(){
+        return games;
+    }
+
+    //Where game n starts in the record file
+    public long offset(long n){
+        if(n < 0 || n >= games)
+            throw new IndexOutOfBoundsException("No game " + n + " in a file of " + games);
+        long at = GameRecordWriter.FILE_HEADER_BYTES + n * 8;
+        return index[(int) (at >>> SEGMENT_BITS)].getLong((int) (at & (SEGMENT_BYTES - 1)));
+    }
+
+    //Reads game n (counting from 0)
+    public GameRecord get(long n){
+        long at = offset(n);
+        if(at + GameRecord.HEADER_BYTES > recordBytes)
+            throw new IllegalStateException("Game " + n + " is missing from the record file");
+        //Duplicated so several threads can read at once, each with its own position
+        ByteBuffer in = records[(int) (at >>> SEGMENT_BITS)].duplicate();
+        in.position((int) (at & (SEGMENT_BYTES - 1)));
+        return GameRecord.read(in);
+    }
+}
@@ -0,0 +1,164 @@
+package engine;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+//Adds finished games to the end of a game record file, and the start of each one to its index file
+//A game's index entry is only written once its record is safely on disk, so the index never points at a game that isn't
+//there. A crash can lose the last few games but never damages the ones before them, and the next writer to open the files
+//cuts off whatever was left half written.
+//Safe to share between threads, games from different threads just go in whatever order they finish.
+//
+//Record file: int magic, int version, then the records one after another (see GameRecord)
+//Index file (the record file's name plus ".idx"): int magic, int version, then a long offset into the record file per game
+public class GameRecordWriter implements Closeable {
+
+    static final int RECORD_MAGIC = 0x43524730; //"0GRC"
+    static final int INDEX_MAGIC = 0x58494730; //"0GIX"
+    static final int VERSION = 1;
+    static final int FILE_HEADER_BYTES = 8;
+    //Index entries held back until their records are flushed, written out all at once when it fills up
+    private static final int PENDING_ENTRIES = 8192;
+
+    private final FileChannel recordChannel;
+    private final FileChannel indexChannel;
+    private final OutputStream records;
+    //Where the next record will start in the record file
+    private long offset;
+    private final ByteBuffer buffer = ByteBuffer.allocate(GameRecord.HEADER_BYTES + GameRecord.MAX_PLIES).order(ByteOrder.LITTLE_ENDIAN);
+    private final ByteBuffer pending = ByteBuffer.allocate(PENDING_ENTRIES * 8).order(ByteOrder.LITTLE_ENDIAN);
+
+    //Opens the files at the given path for adding games, creating them if they don't exist yet
+    //Files that were being written when the program stopped are cut back to the last game that made it into both
+    public GameRecordWriter(String path) throws IOException {
+        Path recordPath = Paths.get(path);
+        Path indexPath = indexPath(path);
+        boolean fresh = !Files.exists(recordPath) || Files.size(recordPath) < FILE_HEADER_BYTES;
+        if(fresh)
+            Files.deleteIfExists(indexPath);
+        recordChannel = FileChannel.open(recordPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        indexChannel = FileChannel.open(indexPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if(fresh){
+                recordChannel.truncate(0);
+                writeHeader(recordChannel, RECORD_MAGIC);
+                writeHeader(indexChannel, INDEX_MAGIC);
+                offset = FILE_HEADER_BYTES;
+            } else {
+                offset = recover();
+            }
+        } catch (IOException e){
+            recordChannel.close();
+            indexChannel.close();
+            throw e;
+        }
+        recordChannel.position(offset);
+        indexChannel.position(indexChannel.size());
+        records = new BufferedOutputStream(Channels.newOutputStream(recordChannel), 1 << 16);
+    }
+
+    static Path indexPath(String path){
+        return Paths.get(path + ".idx");
+    }
+
+    //Checks both files are game record files, then drops index entries from the end until the last one points at a whole
+    //record, and cuts the record file off after that record. Returns where the next record goes
+    private long recover() throws IOException {
+        checkHeader(recordChannel, RECORD_MAGIC, "game record file");
+        if(indexChannel.size() < FILE_HEADER_BYTES){
+            //The index was never finished being made, so no game in the record file was ever indexed
+            indexChannel.truncate(0);
+            writeHeader(indexChannel, INDEX_MAGIC);
+        } else {
+            checkHeader(indexChannel, INDEX_MAGIC, "game record index");
+        }
+        long recordBytes = recordChannel.size();
+        long games = (indexChannel.size() - FILE_HEADER_BYTES) / 8;
+        long end = FILE_HEADER_BYTES;
+        for(; games > 0; games--){
+            long at = read(indexChannel, FILE_HEADER_BYTES + (games - 1) * 8, 8).getLong();
+            if(at < FILE_HEADER_BYTES || at + GameRecord.HEADER_BYTES > recordBytes)
+                continue;
+            //The first byte of a record is its number of plies
+            int plies = read(recordChannel, at, 1).get() & 0xFF;
+            if(plies <= GameRecord.MAX_PLIES && at + GameRecord.HEADER_BYTES + plies <= recordBytes){
+                end = at + GameRecord.HEADER_BYTES + plies;
+                break;
+            }
+        }
+        indexChannel.truncate(FILE_HEADER_BYTES + games * 8);
+        //Records past the last indexed one were never finished being added
+        recordChannel.truncate(end);
+        return end;
+    }
+
+    private void checkHeader(FileChannel channel, int magic, String what) throws IOException {
+        ByteBuffer header = read(channel, 0, FILE_HEADER_BYTES);
+        if(header.getInt() != magic || header.getInt() != VERSION)
+            throw new IOException("Not a " + what + ", or one from a different version");
+    }
+
+    private ByteBuffer read(FileChannel channel, long position, int bytes) throws IOException {
+        buffer.clear();
+        buffer.limit(bytes);
+        while(buffer.hasRemaining()){
+            if(channel.read(buffer, position + buffer.position()) < 0)
+                throw new EOFException();
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    //Adds one game to the end of the file
+    public synchronized void append(GameRecord record) throws IOException {
+        if(!pending.hasRemaining())
+            flush();
+        buffer.clear();
+        record.write(buffer);
+        records.write(buffer.array(), 0, buffer.position());
+        pending.putLong(offset);
+        offset += record.length();
+    }
+
+    //Pushes everything added so far out to the files
+    //The records go first and are forced to disk, and only then are their index entries written
+    public synchronized void flush() throws IOException {
+        records.flush();
+        if(pending.position() == 0)
+            return;
+        recordChannel.force(false);
+        pending.flip();
+        while(pending.hasRemaining())
+            indexChannel.write(pending);
+        pending.clear();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            records.close();
+            indexChannel.close();
+        }
+    }
+
+    private void writeHeader(FileChannel channel, int magic) throws IOException {
+        buffer.clear();
+        buffer.putInt(magic).putInt(VERSION);
+        buffer.flip();
+        while(buffer.hasRemaining())
+            channel.write(buffer);
+    }
+}
@@ -0,0 +1,25 @@
+package engine;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+//Flight recorder event for moves being taken back or played again (undo, redo, or jumping to any ply)
+@Name("othello.History")
+@Label("Undo/Redo")
+@Category({"Othello", "Game"})
+@Description("Moves taken back or played again from the history")
+public class HistoryEvent extends Event {
+
+    @Label("From Ply")
+    int fromPly;
+
+    @Label("To Ply")
+    int toPly;
+
+    @Label("Empties")
+    @Description("Empty squares left afterwards")
+    int empties;
+}
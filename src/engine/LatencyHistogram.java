@@ -0,0 +1,88 @@
+package engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+//Counts how long things took, in microseconds, in buckets that get wider as the times get longer (the same idea as HdrHistogram)
+//Below 64 microseconds every value has its own bucket. Above that, each doubling of time is split into 32 buckets, so any value
+//is known to within about 3% however big it is, and all of them fit in under two thousand buckets.
+//Recording is one atomic add into a preallocated array and never allocates, so it's cheap enough to do on every move, from any
+//number of threads at once.
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    //Values below this each get their own bucket
+    private static final int LINEAR = SUB_BUCKETS * 2;
+    private static final int BUCKETS = (64 - SUB_BITS - 1) * SUB_BUCKETS + LINEAR;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    //Adds one time, in microseconds
+    public void record(long micros){
+        micros = Math.max(0, micros);
+        counts.incrementAndGet(bucket(micros));
+        count.incrementAndGet();
+        total.addAndGet(micros);
+        max.accumulateAndGet(micros, Math::max);
+    }
+
+    //Bucket a value is counted in
+    static int bucket(long value){
+        if(value < LINEAR)
+            return (int) value;
+        int shift = 64 - Long.numberOfLeadingZeros(value) - (SUB_BITS + 1);
+        return SUB_BUCKETS * shift + (int) (value >>> shift);
+    }
+
+    //Largest value that lands in the bucket
+    static long highest(int bucket){
+        if(bucket < LINEAR)
+            return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        long sub = bucket % SUB_BUCKETS + SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    //Number of times recorded
+    public long getCount(){
+        return count.get();
+    }
+
+    public long getMax(){
+        return max.get();
+    }
+
+    public double getMean(){
+        long n = count.get();
+        return n == 0 ? 0 : (double) total.get() / n;
+    }
+
+    //The time that the given percentage of recorded times (like 99.9) were at or under, 0 if nothing was recorded
+    //Reported as the top of its bucket, so it's never less than the real value
+    public long getPercentile(double percent){
+        long n = count.get();
+        if(n == 0)
+            return 0;
+        long wanted = Math.max(1, (long) Math.ceil(n * percent / 100.0));
+        long seen = 0;
+        for(int i = 0; i < BUCKETS; i++){
+            seen += counts.get(i);
+            if(seen >= wanted)
+                return Math.min(highest(i), max.get());
+        }
+        return max.get();
+    }
+
+    //Forgets everything recorded
+    public void reset(){
+        for(int i = 0; i < BUCKETS; i++)
+            counts.set(i, 0);
+        count.set(0);
+        total.set(0);
+        max.set(0);
+    }
+}
@@ -0,0 +1,382 @@
+package engine;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+//Monte Carlo tree search, a different way of picking moves than the alpha-beta search
+//Instead of an evaluation, it plays many quick games (playouts) out to the end from the position and keeps a tree of the
+//moves it has tried with how often they won. Each playout walks down the tree picking moves with UCT (good results so far,
+//plus a bonus for moves that haven't been tried much), adds one new node, then finishes the game with quick moves.
+//
+//Every thread works on the same tree at once. A thread counts its visit to a node on the way down, before it knows the result,
+//so until the result comes back the node looks like it lost (a "virtual loss") and the other threads go look at something else.
+//The tree is kept between moves, so whatever was already worked out below the position that comes up next is used again.
+public class MonteCarloSearch {
+
+    //Square of the move into a node when the player had to pass
+    private static final int PASS = 64;
+    //How much UCT favors trying moves it hasn't looked at much over moves that have done well
+    private static final double EXPLORATION = 1.0;
+    //Stops adding nodes past this many (about 100MB), playouts keep going but the tree stops growing
+    private static final int MAX_NODES = 2000000;
+
+    //The quick moves in a playout: corners when possible, and the squares next to corners only when nothing else is left
+    private static final long CORNERS = 0x8100000000000081L;
+    private static final long X_SQUARES = 0x0042000000004200L;
+
+    //One move in the tree and what happened in the playouts through it
+    //Visits and score are packed into one long so they're always read together: visits in the top half, and the score in the
+    //bottom half counted in half points for the player who made the move (2 for a win, 1 for a draw)
+    private static final class Node {
+        private static final AtomicLongFieldUpdater<Node> STATS = AtomicLongFieldUpdater.newUpdater(Node.class, "stats");
+
+        final byte square;
+        final byte mover;
+        volatile long stats;
+        //Null until the node is expanded, empty once expanded if the game is over here
+        volatile Node[] children;
+
+        Node(int square, int mover){
+            this.square = (byte) square;
+            this.mover = (byte) mover;
+        }
+
+        int visits(){
+            return (int) (stats >>> 32);
+        }
+
+        int score(){
+            return (int) stats;
+        }
+
+        void addVisit(){
+            STATS.addAndGet(this, 1L << 32);
+        }
+
+        void addScore(int halfPoints){
+            STATS.addAndGet(this, halfPoints);
+        }
+    }
+
+    private ForkJoinPool pool;
+    private int threads;
+
+    //Budget for each move: milliseconds and playouts, 0 for no limit (with neither, it runs until stopped)
+    private long timeLimit = 1000;
+    private long playoutLimit = 0;
+    //Set once the budget of the search in progress is used up, so every thread finishes
+    private volatile boolean stopped;
+    //Set from another thread by stop(), and stays set until resume(), so a stop that comes just before a search isn't lost
+    private volatile boolean abort;
+
+    //The tree, and the position at its root with the color to move there
+    private Node root;
+    private long rootBlack;
+    private long rootWhite;
+    private int rootColor;
+    private final AtomicInteger nodes = new AtomicInteger();
+
+    //Playouts claimed so far in this search, then the number run by every thread in the last search and how often the
+    //chosen move won in them
+    private final AtomicLong playouts = new AtomicLong();
+    private long lastPlayouts;
+    private double winRate;
+    //Seeds the quick moves of the playouts, so a one thread search limited by playouts always plays the same
+    private long seed = 1;
+
+    public MonteCarloSearch(int threads){
+        setThreads(threads);
+    }
+
+    //Changes how many threads run playouts at once (1 runs them on the caller's thread only)
+    public void setThreads(int threads){
+        if(pool != null)
+            pool.shutdownNow();
+        this.threads = Math.max(1, threads);
+        //The caller's thread does playouts too, so the pool only needs the others
+        pool = this.threads > 1 ? new ForkJoinPool(this.threads - 1) : null;
+    }
+
+    public int getThreads(){
+        return threads;
+    }
+
+    //Sets how many milliseconds a search may take (0 for no limit)
+    public void setTimeLimit(long millis){
+        timeLimit = millis;
+    }
+
+    //Sets how many playouts a search may run, over all threads (0 for no limit)
+    public void setPlayoutLimit(long limit){
+        playoutLimit = limit;
+    }
+
+    public void setSeed(long seed){
+        this.seed = seed;
+    }
+
+    //Throws away the tree, for when a new game starts
+    public void clearTree(){
+        root = null;
+        nodes.set(0);
+    }
+
+    //Asks a running search to stop early, it then returns the best move found so far
+    //Every search after this stops straight away too, until resume() is called
+    public void stop(){
+        abort = true;
+    }
+
+    //Lets searches run again after stop()
+    public void resume(){
+        abort = false;
+    }
+
+    //Playouts run for the last move
+    public long getPlayouts(){
+        return lastPlayouts;
+    }
+
+    //Fraction of the playouts through the chosen move that it won (draws count half)
+    public double getWinRate(){
+        return winRate;
+    }
+
+    //Number of nodes in the tree
+    public int getTreeSize(){
+        return nodes.get();
+    }
+
+    //Finds the best square for the given color to play, or -1 if they have no legal move
+    public int findBestMove(Position position, int color){
+        stopped = false;
+        if(position.legalMoves(color) == 0)
+            return -1;
+        reuseTree(position.getBlack(), position.getWhite(), color);
+        int visitsBefore = root.visits();
+        playouts.set(0);
+        long deadline = timeLimit > 0 ? System.nanoTime() + timeLimit * 1000000 : Long.MAX_VALUE;
+
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[threads - 1];
+        for(int i = 0; i < tasks.length; i++){
+            long workerSeed = seed + (i + 1) * 0x9E3779B97F4A7C15L;
+            tasks[i] = pool.submit(() -> work(deadline, workerSeed));
+        }
+        work(deadline, seed);
+        //Helpers stop on their own once the budget is used up, this only waits for their last playout
+        stopped = true;
+        for(ForkJoinTask<?> task : tasks)
+            task.join();
+        lastPlayouts = root.visits() - visitsBefore;
+        seed = seed * 6364136223846793005L + 1442695040888963407L;
+
+        //The most visited move is the one the search trusts the most
+        Node best = null;
+        for(Node child : root.children){
+            if(best == null || child.visits() > best.visits())
+                best = child;
+        }
+        winRate = best.visits() == 0 ? 0 : best.score() / (2.0 * best.visits());
+        return best.square;
+    }
+
+    //Keeps the part of the tree below the new position if it's within two moves (or passes) of the old root, or starts over
+    private void reuseTree(long black, long white, int color){
+        Node found = root == null ? null : find(root, rootBlack, rootWhite, rootColor, black, white, color, 2);
+        if(found == null){
+            found = new Node(PASS, -color);
+            nodes.set(1);
+        } else {
+            //Everything outside the kept part is garbage now
+            nodes.set(count(found));
+        }
+        root = found;
+        //The root is expanded up front so there's always a move to give back, even if no playout finishes in time
+        if(color == Position.BLACK)
+            expand(root, black, white, color);
+        else
+            expand(root, white, black, color);
+        rootBlack = black;
+        rootWhite = white;
+        rootColor = color;
+    }
+
+    private static int count(Node node){
+        int total = 1;
+        Node[] children = node.children;
+        if(children != null){
+            for(Node child : children)
+                total += count(child);
+        }
+        return total;
+    }
+
+    private static Node find(Node node, long black, long white, int color, long targetBlack, long targetWhite, int targetColor, int depth){
+        if(black == targetBlack && white == targetWhite && color == targetColor)
+            return node;
+        Node[] children = node.children;
+        if(depth == 0 || children == null)
+            return null;
+        for(Node child : children){
+            long nextBlack = black;
+            long nextWhite = white;
+            if(child.square != PASS){
+                long placed = 1L << child.square;
+                if(color == Position.BLACK){
+                    long flips = Position.flips(black, white, child.square);
+                    nextBlack |= flips | placed;
+                    nextWhite &= ~flips;
+                } else {
+                    long flips = Position.flips(white, black, child.square);
+                    nextWhite |= flips | placed;
+                    nextBlack &= ~flips;
+                }
+            }
+            Node match = find(child, nextBlack, nextWhite, -color, targetBlack, targetWhite, targetColor, depth - 1);
+            if(match != null)
+                return match;
+        }
+        return null;
+    }
+
+    //Runs playouts on one thread until the time or playouts run out or the search is stopped
+    private void work(long deadline, long seed){
+        Node[] path = new Node[130];
+        long random = seed | 1;
+        while(!stopped && !abort){
+            //Each thread claims a playout before running it, so together they never run more than the limit
+            if((playoutLimit > 0 && playouts.getAndIncrement() >= playoutLimit) || System.nanoTime() >= deadline){
+                stopped = true;
+                break;
+            }
+            random = playout(path, random);
+        }
+    }
+
+    //One playout: down the tree with UCT, add a node, finish the game with quick moves, then score every node on the way
+    //Works on the discs as "own" (the player to move) and "opp", swapping them after each move
+    //Returns the random number state to carry on with
+    private long playout(Node[] path, long random){
+        long own = rootColor == Position.BLACK ? rootBlack : rootWhite;
+        long opp = rootColor == Position.BLACK ? rootWhite : rootBlack;
+        int color = rootColor;
+        Node node = root;
+        node.addVisit();
+        int length = 0;
+        while(true){
+            Node[] children = node.children;
+            if(children == null){
+                //Nodes are only expanded on their second visit, so one-off lines don't fill the tree
+                if((node != root && node.visits() < 2) || nodes.get() >= MAX_NODES)
+                    break;
+                children = expand(node, own, opp, color);
+            }
+            if(children.length == 0)
+                break;
+            node = select(node, children);
+            //Counted straight away, so it looks like a loss to the other threads until the result is in
+            node.addVisit();
+            path[length++] = node;
+            if(node.square != PASS){
+                long flips = Position.flips(own, opp, node.square);
+                own |= flips | (1L << node.square);
+                opp &= ~flips;
+            }
+            long swap = own;
+            own = opp;
+            opp = swap;
+            color = -color;
+        }
+
+        //Quick moves to the end of the game
+        boolean passed = false;
+        while(true){
+            long moves = Position.moves(own, opp);
+            if(moves == 0){
+                if(passed)
+                    break;
+                passed = true;
+            } else {
+                passed = false;
+                random ^= random << 13;
+                random ^= random >>> 7;
+                random ^= random << 17;
+                int square = pick(moves, random);
+                long flips = Position.flips(own, opp, square);
+                own |= flips | (1L << square);
+                opp &= ~flips;
+            }
+            long swap = own;
+            own = opp;
+            opp = swap;
+            color = -color;
+        }
+
+        //Half points for the color to move at the end, then each node scores from its mover's side
+        int diff = Long.bitCount(own) - Long.bitCount(opp);
+        int result = diff > 0 ? 2 : diff == 0 ? 1 : 0;
+        for(int i = 0; i < length; i++){
+            Node n = path[i];
+            n.addScore(n.mover == color ? result : 2 - result);
+        }
+        return random;
+    }
+
+    //Makes the children of a node, one for each legal move, or a single pass if that's the only option
+    private Node[] expand(Node node, long own, long opp, int color){
+        synchronized(node){
+            Node[] children = node.children;
+            if(children != null)
+                return children;
+            long moves = Position.moves(own, opp);
+            if(moves != 0){
+                children = new Node[Long.bitCount(moves)];
+                for(int i = 0; moves != 0; i++){
+                    children[i] = new Node(Long.numberOfTrailingZeros(moves), color);
+                    moves &= moves - 1;
+                }
+            } else if(Position.moves(opp, own) != 0){
+                children = new Node[]{new Node(PASS, color)};
+            } else {
+                children = new Node[0];
+            }
+            nodes.addAndGet(children.length);
+            node.children = children;
+            return children;
+        }
+    }
+
+    //The child with the best UCT value: its win rate, plus a bonus that shrinks the more it's been tried
+    //Untried children come first, so every move gets one playout before any gets a second
+    private static Node select(Node parent, Node[] children){
+        double logVisits = Math.log(Math.max(1, parent.visits()));
+        Node best = children[0];
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for(Node child : children){
+            long stats = child.stats;
+            int visits = (int) (stats >>> 32);
+            if(visits == 0)
+                return child;
+            double value = (int) stats / (2.0 * visits) + EXPLORATION * Math.sqrt(logVisits / visits);
+            if(value > bestValue){
+                bestValue = value;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    //Chooses a quick move in a playout from the given random bits: a corner if there is one, otherwise anything but a
+    //square next to a corner if possible
+    private static int pick(long moves, long random){
+        long choices = moves & CORNERS;
+        if(choices == 0)
+            choices = (moves & ~X_SQUARES) != 0 ? moves & ~X_SQUARES : moves;
+        for(int skip = (int) ((random >>> 1) % Long.bitCount(choices)); skip > 0; skip--)
+            choices &= choices - 1;
+        return Long.numberOfTrailingZeros(choices);
+    }
+}
@@ -0,0 +1,30 @@
+package engine;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+//Flight recorder event for a move being played in a game, checking it and flipping the discs
+@Name("othello.Move")
+@Label("Move")
+@Category({"Othello", "Game"})
+@Description("A move played in a game")
+public class MoveEvent extends Event {
+
+    @Label("Square")
+    @Description("Square played, r * 8 + c")
+    int square;
+
+    @Label("Color")
+    @Description("1 for white, -1 for black")
+    int color;
+
+    @Label("Flips")
+    int flips;
+
+    @Label("Empties")
+    @Description("Empty squares left after the move")
+    int empties;
+}
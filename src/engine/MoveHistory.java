@@ -0,0 +1,139 @@
+package engine;
+
+import java.util.Arrays;
+
+//Every move of a game, kept as the square played, who played it and a bitmask of the discs it flipped, along with the
+//discs on the board and the color to move after each one
+//Moves past the current ply stay around after an undo, so they can be redone until a different move is played
+//Everything lives in plain arrays, so even a very long history is under thirty bytes a move, and going to any ply is just
+//reading its snapshot back: jumping from the end of a game to the start costs the same as taking back one move, and
+//never creates any objects.
+public class MoveHistory {
+
+    private byte[] squares;
+    private byte[] colors;
+    private long[] flips;
+    //Discs on the board and the color to move after each number of moves, starting with the position before any move
+    private long[] blacks;
+    private long[] whites;
+    private byte[] toMove;
+    //How many moves have been recorded, and how many of those are currently on the board
+    private int size = 0;
+    private int ply = 0;
+
+    public MoveHistory(Position start, int color){
+        this(start, color, 64);
+    }
+
+    public MoveHistory(Position start, int color, int capacity){
+        capacity = Math.max(1, capacity);
+        squares = new byte[capacity];
+        colors = new byte[capacity];
+        flips = new long[capacity];
+        blacks = new long[capacity + 1];
+        whites = new long[capacity + 1];
+        toMove = new byte[capacity + 1];
+        blacks[0] = start.getBlack();
+        whites[0] = start.getWhite();
+        toMove[0] = (byte) color;
+    }
+
+    //Records a move that was just played on the board
+    //Anything that could have been redone is thrown away, since the game has gone a different way now
+    public void add(int color, int square, long flipped){
+        if(ply == squares.length){
+            int capacity = squares.length * 2;
+            squares = Arrays.copyOf(squares, capacity);
+            colors = Arrays.copyOf(colors, capacity);
+            flips = Arrays.copyOf(flips, capacity);
+            blacks = Arrays.copyOf(blacks, capacity + 1);
+            whites = Arrays.copyOf(whites, capacity + 1);
+            toMove = Arrays.copyOf(toMove, capacity + 1);
+        }
+        squares[ply] = (byte) square;
+        colors[ply] = (byte) color;
+        flips[ply] = flipped;
+        //Whoever actually moved was the one to play here, which gets passes right without storing them
+        toMove[ply] = (byte) color;
+        long placed = 1L << square;
+        if(color == Position.BLACK){
+            blacks[ply + 1] = blacks[ply] | placed | flipped;
+            whites[ply + 1] = whites[ply] & ~flipped;
+        } else {
+            whites[ply + 1] = whites[ply] | placed | flipped;
+            blacks[ply + 1] = blacks[ply] & ~flipped;
+        }
+        toMove[ply + 1] = (byte) -color;
+        ply++;
+        size = ply;
+    }
+
+    //Takes the last move on the board back off the given position. Returns false if there was nothing to undo
+    public boolean undo(Position position){
+        if(ply == 0) return false;
+        goTo(position, ply - 1);
+        return true;
+    }
+
+    //Plays the next undone move on the given position again. Returns false if there was nothing to redo
+    public boolean redo(Position position){
+        if(ply == size) return false;
+        goTo(position, ply + 1);
+        return true;
+    }
+
+    //Puts the given position straight to how it was after the given number of moves
+    public void goTo(Position position, int target){
+        if(target < 0 || target > size)
+            throw new IllegalArgumentException("No ply " + target + " in a history of " + size + " moves");
+        position.set(blacks[target], whites[target]);
+        ply = target;
+    }
+
+    //Forgets every move, back to the position the history started from
+    public void clear(){
+        size = 0;
+        ply = 0;
+    }
+
+    //Number of moves currently on the board
+    public int getPly(){
+        return ply;
+    }
+
+    //Number of moves recorded, including any that have been undone
+    public int size(){
+        return size;
+    }
+
+    public boolean canUndo(){
+        return ply > 0;
+    }
+
+    public boolean canRedo(){
+        return ply < size;
+    }
+
+    //Color to move after the moves currently on the board
+    public int getToMove(){
+        return toMove[ply];
+    }
+
+    //Accessors for a recorded move, by its index from the start of the game
+    public int getSquare(int index){
+        return squares[index];
+    }
+
+    public int getColor(int index){
+        return colors[index];
+    }
+
+    public long getFlips(int index){
+        return flips[index];
+    }
+
+    //Square of the last move on the board, or -1 if nothing has been played
+    public int lastSquare(){
+        return ply == 0 ? -1 : squares[ply - 1];
+    }
+}
@@ -0,0 +1,115 @@
+package engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+//Opening moves read from a sorted binary file, so the computer doesn't have to think about positions it has seen before
+//The file is memory mapped rather than read in, so opening it costs nothing and the OS only pages in what gets looked at
+//
+//File layout (little endian): the magic number, the number of entries, then the entries sorted by key, each one:
+//  long key, byte move, byte unused, short score, int games (16 bytes)
+//Keys are folded over the 8 symmetries of the board (the smallest hash of all 8 reflections), so one entry covers every
+//reflection of a position, and the move is stored as it is played in that smallest reflection
+public class OpeningBook {
+
+    static final int MAGIC = 0x4B4F4230; //"0BOK"
+    static final int HEADER_BYTES = 8;
+    static final int ENTRY_BYTES = 16;
+
+    //Where the game looks for its book
+    private static final String DEFAULT_PATH = "assets/book.bin";
+    private static OpeningBook defaultBook;
+    private static boolean defaultLoaded;
+
+    private final MappedByteBuffer buffer;
+    private final int size;
+
+    private OpeningBook(MappedByteBuffer buffer){
+        this.buffer = buffer;
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if(buffer.getInt(0) != MAGIC)
+            throw new IllegalArgumentException("Not an opening book file");
+        size = buffer.getInt(4);
+    }
+
+    //Maps a book file into memory
+    public static OpeningBook open(String path) throws IOException {
+        try(FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)){
+            //The mapping stays valid after the channel is closed
+            return new OpeningBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    //The book the game ships with, or null if there isn't one
+    public static synchronized OpeningBook getDefault(){
+        if(!defaultLoaded){
+            defaultLoaded = true;
+            if(new File(DEFAULT_PATH).exists()){
+                try {
+                    defaultBook = open(DEFAULT_PATH);
+                } catch (IOException | IllegalArgumentException e){
+                    System.out.println("The opening book could not be loaded.");
+                }
+            }
+        }
+        return defaultBook;
+    }
+
+    public int size(){
+        return size;
+    }
+
+    //Returns the book move for the given color, or -1 if the position isn't in the book
+    public int lookup(Position position, int color){
+        long own = position.discs(color);
+        long opp = position.discs(-color);
+        int sym = canonicalSymmetry(own, opp);
+        long key = Position.hash(Position.symmetry(own, sym), Position.symmetry(opp, sym));
+
+        int entry = find(key);
+        if(entry < 0)
+            return -1;
+        int stored = buffer.get(HEADER_BYTES + entry * ENTRY_BYTES + 8);
+        //Turns the move back from the stored reflection to the real board
+        for(int square = 0; square < 64; square++){
+            if(Position.symmetrySquare(square, sym) == stored){
+                //Guards against two positions sharing a key
+                return (Position.moves(own, opp) & (1L << square)) != 0 ? square : -1;
+            }
+        }
+        return -1;
+    }
+
+    //Binary search for the entry with the given key, -1 if none
+    private int find(long key){
+        int low = 0;
+        int high = size - 1;
+        while(low <= high){
+            int mid = (low + high) >>> 1;
+            long k = buffer.getLong(HEADER_BYTES + mid * ENTRY_BYTES);
+            if(k < key) low = mid + 1;
+            else if(k > key) high = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    //The symmetry whose reflection of the position has the smallest hash, which makes all 8 reflections share one key
+    static int canonicalSymmetry(long own, long opp){
+        int best = 0;
+        long bestKey = Position.hash(own, opp);
+        for(int sym = 1; sym < 8; sym++){
+            long key = Position.hash(Position.symmetry(own, sym), Position.symmetry(opp, sym));
+            if(key < bestKey){
+                bestKey = key;
+                best = sym;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,253 @@
+package engine;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+//Runs the alpha-beta search on several cores at once (Lazy SMP)
+//Every thread searches the same position and they all share one transposition table, so helpers fill it with results
+//the main search then finds instead of searching again. Only the main search's move is used.
+public class ParallelSearch {
+
+    //Timed runs of each thread count in the speedup measurement
+    private static final int ROUNDS = 5;
+
+    private Search[] searches;
+    private ForkJoinPool pool;
+    //Made on the first search, so changing the size or thread count before then doesn't allocate a table for nothing
+    private int hashMegabytes;
+    private TranspositionTable table;
+
+    //Budget for each search, applied to the main search (helpers are stopped when it finishes)
+    private long timeLimit = 1000;
+    private long nodeLimit = 0;
+    private int maxDepth = 60;
+
+    //Total nodes searched by every thread in the last search, and table lookups and hits
+    private long totalNodes;
+    private long totalProbes;
+    private long totalHits;
+
+    public ParallelSearch(int threads, int hashMegabytes){
+        this.hashMegabytes = hashMegabytes;
+        setThreads(threads);
+    }
+
+    //Changes how many threads search at once (1 searches on the caller's thread only)
+    public void setThreads(int threads){
+        if(pool != null)
+            pool.shutdownNow();
+        threads = Math.max(1, threads);
+        searches = new Search[threads];
+        for(int i = 0; i < threads; i++){
+            searches[i] = new Search();
+            searches[i].setTable(table);
+            if(i > 0)
+                searches[i].setHelper(i);
+        }
+        //The main search runs on the caller's thread, so the pool only needs the helpers
+        pool = threads > 1 ? new ForkJoinPool(threads - 1) : null;
+        applyLimits();
+    }
+
+    public int getThreads(){
+        return searches.length;
+    }
+
+    //Sets how many milliseconds a search may take (0 for no limit)
+    public void setTimeLimit(long millis){
+        timeLimit = millis;
+        applyLimits();
+    }
+
+    //Sets how many nodes the main search may visit (0 for no limit)
+    public void setNodeLimit(long limit){
+        nodeLimit = limit;
+        applyLimits();
+    }
+
+    //Sets the deepest iteration the main search will start
+    public void setMaxDepth(int depth){
+        maxDepth = depth;
+        applyLimits();
+    }
+
+    //Replaces the shared transposition table with one of the given size
+    public void setHashSize(int megabytes){
+        hashMegabytes = megabytes;
+        table = null;
+        for(Search s : searches)
+            s.setTable(null);
+    }
+
+    //Forgets every remembered position, for when a new game starts
+    public void clearTable(){
+        if(table != null)
+            table.clear();
+    }
+
+    //Best move remembered in the table for the given color in this position, or -1 if it hasn't been searched
+    public int getHashMove(Position position, int color){
+        if(table == null) return -1;
+        long entry = table.probe(Zobrist.hash(position, color));
+        if(entry == 0) return -1;
+        int move = TranspositionTable.move(entry);
+        return move < 64 && position.isLegal(color, move / 8, move % 8) ? move : -1;
+    }
+
+    public long getTimeLimit(){
+        return timeLimit;
+    }
+
+    public int getMaxDepth(){
+        return maxDepth;
+    }
+
+    //Asks a running search to stop early, it then returns the best move found so far
+    //Every search after this stops straight away too, until resume() is called
+    public void stop(){
+        searches[0].stop();
+    }
+
+    //Lets searches run again after stop()
+    public void resume(){
+        searches[0].resume();
+    }
+
+    //Helpers have no limits of their own, they just run until the main search is done
+    private void applyLimits(){
+        searches[0].setTimeLimit(timeLimit);
+        searches[0].setNodeLimit(nodeLimit);
+        searches[0].setMaxDepth(maxDepth);
+        for(int i = 1; i < searches.length; i++)
+            searches[i].setTimeLimit(0);
+    }
+
+    //Accessors for the results of the last search (score and depth are the main search's)
+    public int getBestScore(){
+        return searches[0].getBestScore();
+    }
+
+    public int getDepthReached(){
+        return searches[0].getDepthReached();
+    }
+
+    public long getNodes(){
+        return totalNodes;
+    }
+
+    public long getTableProbes(){
+        return totalProbes;
+    }
+
+    public long getTableHits(){
+        return totalHits;
+    }
+
+    //Finds the best square for the given color to play, or -1 if they have no legal move
+    public int findBestMove(Position position, int color){
+        if(table == null){
+            table = new TranspositionTable(hashMegabytes);
+            for(Search s : searches)
+                s.setTable(table);
+        }
+        int helpers = searches.length - 1;
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[helpers];
+        for(int i = 0; i < helpers; i++){
+            Search helper = searches[i + 1];
+            //Helpers were stopped at the end of the last search, and only ever by this
+            helper.resume();
+            //Each helper gets its own copy of the position so nothing is shared but the table
+            Position copy = position.copy();
+            tasks[i] = pool.submit(() -> helper.findBestMove(copy, color));
+        }
+        int move = searches[0].findBestMove(position, color);
+        totalNodes = searches[0].getNodes();
+        totalProbes = searches[0].getTableProbes();
+        totalHits = searches[0].getTableHits();
+        for(int i = 0; i < helpers; i++){
+            //The stop holds even if the helper hasn't got going yet
+            searches[i + 1].stop();
+            tasks[i].join();
+            totalNodes += searches[i + 1].getNodes();
+            totalProbes += searches[i + 1].getTableProbes();
+            totalHits += searches[i + 1].getTableHits();
+        }
+        return move;
+    }
+
+    //Shuts down the helper threads, the search can't be used afterwards
+    public void shutdown(){
+        if(pool != null)
+            pool.shutdownNow();
+    }
+
+    //Measures how much faster the parallel search reaches a fixed depth than a single thread does
+    //Usage: ParallelSearch [threads] [depth] [positions]
+    public static void main(String[] args){
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int count = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        //Midgame test positions, reached by random moves from the start with a fixed seed
+        Random random = new Random(1);
+        Position[] positions = new Position[count];
+        int[] colors = new int[count];
+        for(int i = 0; i < count; i++){
+            Position p = new Position();
+            int color = Position.WHITE;
+            for(int ply = 0; ply < 16; ply++){
+                long moves = p.legalMoves(color);
+                if(moves == 0){
+                    color = -color;
+                    continue;
+                }
+                for(int skip = random.nextInt(Long.bitCount(moves)); skip > 0; skip--)
+                    moves &= moves - 1;
+                p.play(color, Long.numberOfTrailingZeros(moves));
+                color = -color;
+            }
+            positions[i] = p;
+            colors[i] = color;
+        }
+
+        //One uncounted pass of each first so the JIT has compiled the search before anything is measured, then the two are
+        //run in turns so neither gets all the warm or cold rounds, and the median of each is compared
+        run(1, depth, positions, colors);
+        run(threads, depth, positions, colors);
+        long[] singleTimes = new long[ROUNDS];
+        long[] parallelTimes = new long[ROUNDS];
+        for(int round = 0; round < ROUNDS; round++){
+            singleTimes[round] = run(1, depth, positions, colors);
+            parallelTimes[round] = run(threads, depth, positions, colors);
+        }
+        long singleTime = median(singleTimes);
+        long parallelTime = median(parallelTimes);
+        System.out.printf("Depth %d over %d positions (median of %d): 1 thread %d ms, %d threads %d ms, speedup %.2fx%n",
+                depth, count, ROUNDS, singleTime / 1000000, threads, parallelTime / 1000000, (double) singleTime / parallelTime);
+    }
+
+    private static long median(long[] times){
+        long[] sorted = times.clone();
+        java.util.Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    //Total time for a search with the given thread count to reach the depth on every position, starting each from an empty table
+    private static long run(int threads, int depth, Position[] positions, int[] colors){
+        ParallelSearch search = new ParallelSearch(threads, 64);
+        search.setTimeLimit(0);
+        search.setMaxDepth(depth);
+        long nodes = 0;
+        long start = System.nanoTime();
+        for(int i = 0; i < positions.length; i++){
+            search.clearTable();
+            search.findBestMove(positions[i], colors[i]);
+            nodes += search.getNodes();
+        }
+        long time = System.nanoTime() - start;
+        search.shutdown();
+        System.out.printf("%d thread(s): %d ms, %d nodes, %.0f nodes/s%n", threads, time / 1000000, nodes, nodes * 1e9 / time);
+        return time;
+    }
+}
@@ -0,0 +1,120 @@
+package engine;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+//Counts every sequence of moves to a given depth, to check the move generator and to time it
+//A pass counts as a move (one ply), and a game that ends before the depth is reached counts as one leaf where it ends.
+//From the starting position the counts have to match the well known Othello perft numbers.
+//
+//Usage: Perft [depth] [--threads n] [--position <64 character board> <X|O>]
+public class Perft {
+
+    //Known counts from the starting position, by depth (index 0 is depth 0)
+    static final long[] START_COUNTS = {1L, 4L, 12L, 56L, 244L, 1396L, 8200L, 55092L, 390216L, 3005288L, 24571284L,
+            212258800L, 1939886636L, 18429641748L, 184042084512L};
+
+    //Below this many plies left, a branch is counted on the thread that found it instead of being split up further
+    private static final int SPLIT_DEPTH = 6;
+
+    public static void main(String[] args){
+        int depth = 9;
+        int threads = 1;
+        Position position = new Position();
+        int color = Position.WHITE;
+        boolean fromStart = true;
+        for(int i = 0; i < args.length; i++){
+            if(args[i].equals("--threads")){
+                threads = Integer.parseInt(args[++i]);
+            } else if(args[i].equals("--position")){
+                position = Position.parse(args[++i]);
+                color = Position.parseColor(args[++i].charAt(0));
+                fromStart = false;
+            } else {
+                depth = Integer.parseInt(args[i]);
+            }
+        }
+
+        ForkJoinPool pool = threads > 1 ? new ForkJoinPool(threads) : null;
+        boolean allMatch = true;
+        for(int d = 1; d <= depth; d++){
+            long start = System.nanoTime();
+            long count = pool == null
+                    ? count(position.discs(color), position.discs(-color), d, false)
+                    : pool.invoke(new Branch(position.discs(color), position.discs(-color), d, false));
+            long time = System.nanoTime() - start;
+            String check = "";
+            if(fromStart && d < START_COUNTS.length){
+                boolean match = count == START_COUNTS[d];
+                allMatch &= match;
+                check = match ? "  ok" : "  MISMATCH, expected " + START_COUNTS[d];
+            }
+            System.out.printf("perft(%d) = %d  %.3f s  %.0f nodes/s%s%n", d, count, time / 1e9, count * 1e9 / Math.max(1, time), check);
+        }
+        if(pool != null)
+            pool.shutdown();
+        if(!allMatch)
+            System.exit(1);
+    }
+
+    //Leaves at the given depth below the position, for the player owning "own" to move
+    //"passed" is true when the last ply was a pass, so a second one in a row ends the game
+    public static long count(long own, long opp, int depth, boolean passed){
+        long moves = Position.moves(own, opp);
+        if(moves == 0){
+            //Either the game is over, which is a leaf, or this player passes, which uses up a ply
+            if(passed || depth == 1)
+                return 1;
+            return count(opp, own, depth - 1, true);
+        }
+        //Each legal move is one leaf, no need to play them
+        if(depth == 1)
+            return Long.bitCount(moves);
+        long total = 0;
+        while(moves != 0){
+            int square = Long.numberOfTrailingZeros(moves);
+            moves &= moves - 1;
+            long f = Position.flips(own, opp, square);
+            total += count(opp & ~f, own | f | (1L << square), depth - 1, false);
+        }
+        return total;
+    }
+
+    //One branch of a parallel count, split into a task per move while there's plenty left to count below it
+    private static class Branch extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final long own;
+        private final long opp;
+        private final int depth;
+        private final boolean passed;
+
+        Branch(long own, long opp, int depth, boolean passed){
+            this.own = own;
+            this.opp = opp;
+            this.depth = depth;
+            this.passed = passed;
+        }
+
+        @Override
+        protected Long compute(){
+            if(depth <= SPLIT_DEPTH)
+                return count(own, opp, depth, passed);
+            long moves = Position.moves(own, opp);
+            if(moves == 0)
+                return passed ? 1L : new Branch(opp, own, depth - 1, true).compute();
+            Branch[] children = new Branch[Long.bitCount(moves)];
+            for(int i = 0; moves != 0; i++){
+                int square = Long.numberOfTrailingZeros(moves);
+                moves &= moves - 1;
+                long f = Position.flips(own, opp, square);
+                children[i] = new Branch(opp & ~f, own | f | (1L << square), depth - 1, false);
+                children[i].fork();
+            }
+            long total = 0;
+            for(Branch child : children)
+                total += child.join();
+            return total;
+        }
+    }
+}
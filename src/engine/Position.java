@@ -0,0 +1,290 @@
+package engine;
+
+//Bitboard representation of the discs on the board, one 64-bit long per color
+//Square index is r * 8 + c, so bit 0 is the top left square and bit 63 is the bottom right one
+public class Position {
+
+    //Color constants, the same values the rest of the game uses (-1 is black, 1 is white)
+    public static final int BLACK = -1;
+    public static final int WHITE = 1;
+
+    //Masks that stop shifted discs from wrapping around to the other side of the board
+    private static final long NOT_LEFT_COLUMN = 0xFEFEFEFEFEFEFEFEL;
+    private static final long NOT_RIGHT_COLUMN = 0x7F7F7F7F7F7F7F7FL;
+
+    //Marks a cached move list that has to be worked out again (no real move list has every bit set)
+    private static final long UNKNOWN = -1L;
+
+    private long black;
+    private long white;
+
+    //Kept up to date by play() and undo(), so reading them never scans the board
+    private int blackCount;
+    private int whiteCount;
+    //Legal moves for each color, worked out at most once after each change
+    private long blackMoves = UNKNOWN;
+    private long whiteMoves = UNKNOWN;
+
+    //Creates the starting position of the game (the middle four discs)
+    public Position(){
+        this(bit(3, 3) | bit(4, 4), bit(3, 4) | bit(4, 3));
+    }
+
+    public Position(long black, long white){
+        this.black = black;
+        this.white = white;
+        blackCount = Long.bitCount(black);
+        whiteCount = Long.bitCount(white);
+    }
+
+    //Puts the given discs on the board in place of whatever was there
+    public void set(long black, long white){
+        this.black = black;
+        this.white = white;
+        blackCount = Long.bitCount(black);
+        whiteCount = Long.bitCount(white);
+        blackMoves = UNKNOWN;
+        whiteMoves = UNKNOWN;
+    }
+
+    //Gives a copy of this position, so the caller can't change the original
+    public Position copy(){
+        Position p = new Position(black, white);
+        p.blackMoves = blackMoves;
+        p.whiteMoves = whiteMoves;
+        return p;
+    }
+
+    public long getBlack(){
+        return black;
+    }
+
+    public long getWhite(){
+        return white;
+    }
+
+    //Discs belonging to the given color
+    public long discs(int color){
+        return color == BLACK ? black : white;
+    }
+
+    //Returns -1 if the square holds a black disc, 1 for white and 0 if it is empty
+    public int get(int r, int c){
+        long b = bit(r, c);
+        if((black & b) != 0) return BLACK;
+        if((white & b) != 0) return WHITE;
+        return 0;
+    }
+
+    //Every square the given color could legally play
+    public long legalMoves(int color){
+        if(color == BLACK){
+            if(blackMoves == UNKNOWN)
+                blackMoves = moves(black, white);
+            return blackMoves;
+        }
+        if(whiteMoves == UNKNOWN)
+            whiteMoves = moves(white, black);
+        return whiteMoves;
+    }
+
+    //Whether the given color can play on (r, c)
+    public boolean isLegal(int color, int r, int c){
+        return (legalMoves(color) & bit(r, c)) != 0;
+    }
+
+    //Discs that would be flipped if the given color played on the square (0 if the move isn't legal)
+    public long flipsFor(int color, int square){
+        //Only legal moves flip anything, so if the move list is already known an illegal square costs nothing
+        long known = color == BLACK ? blackMoves : whiteMoves;
+        if(known != UNKNOWN && (known & (1L << square)) == 0) return 0;
+        return color == BLACK ? flips(black, white, square) : flips(white, black, square);
+    }
+
+    //Plays the given color on the square and returns the discs it flipped
+    //Returns 0 and leaves the position untouched if the move isn't legal
+    public long play(int color, int square){
+        long f = flipsFor(color, square);
+        if(f == 0) return 0;
+        redo(color, square, f);
+        return f;
+    }
+
+    //Plays a move again that was already played once, given the discs it flipped then
+    //Nothing gets checked, so it's only for moves taken back with undo()
+    public void redo(int color, int square, long flips){
+        long placed = 1L << square;
+        int flipped = Long.bitCount(flips);
+        if(color == BLACK){
+            black |= placed | flips;
+            white &= ~flips;
+            blackCount += flipped + 1;
+            whiteCount -= flipped;
+        } else {
+            white |= placed | flips;
+            black &= ~flips;
+            whiteCount += flipped + 1;
+            blackCount -= flipped;
+        }
+        blackMoves = UNKNOWN;
+        whiteMoves = UNKNOWN;
+    }
+
+    //Takes back a move made by play(), given the same color, square and flipped discs
+    public void undo(int color, int square, long flips){
+        long placed = 1L << square;
+        int flipped = Long.bitCount(flips);
+        if(color == BLACK){
+            black &= ~(placed | flips);
+            white |= flips;
+            blackCount -= flipped + 1;
+            whiteCount += flipped;
+        } else {
+            white &= ~(placed | flips);
+            black |= flips;
+            whiteCount -= flipped + 1;
+            blackCount += flipped;
+        }
+        blackMoves = UNKNOWN;
+        whiteMoves = UNKNOWN;
+    }
+
+    //Discs of the given color on the board
+    public int count(int color){
+        return color == BLACK ? blackCount : whiteCount;
+    }
+
+    public int countEmpty(){
+        return 64 - blackCount - whiteCount;
+    }
+
+    //Reads a board written as 64 characters, row by row from the top left: X for black, O for white, - or . for empty
+    public static Position parse(String board){
+        if(board.length() != 64)
+            throw new IllegalArgumentException("A board needs exactly 64 squares, not " + board.length() + ": " + board);
+        long b = 0;
+        long w = 0;
+        for(int s = 0; s < 64; s++){
+            char ch = Character.toUpperCase(board.charAt(s));
+            if(ch == 'X') b |= 1L << s;
+            else if(ch == 'O') w |= 1L << s;
+            else if(ch != '-' && ch != '.')
+                throw new IllegalArgumentException("Unknown square '" + ch + "' in board: " + board);
+        }
+        return new Position(b, w);
+    }
+
+    //Reads a side to move written the same way as the discs, X for black and O for white
+    public static int parseColor(char side){
+        switch(Character.toUpperCase(side)){
+            case 'X': return BLACK;
+            case 'O': return WHITE;
+            default: throw new IllegalArgumentException("Unknown side to move '" + side + "'");
+        }
+    }
+
+    //Writes the board in the same 64 character form parse() reads
+    @Override
+    public String toString(){
+        StringBuilder sb = new StringBuilder(64);
+        for(int s = 0; s < 64; s++)
+            sb.append((black >>> s & 1) != 0 ? 'X' : (white >>> s & 1) != 0 ? 'O' : '-');
+        return sb.toString();
+    }
+
+    //Mixes the discs of the player to move and their opponent into one 64-bit key
+    //Positions are told apart by whose discs are whose, so the color to move doesn't need to be part of it
+    public static long hash(long own, long opp){
+        long h = own * 0x9E3779B97F4A7C15L ^ Long.rotateLeft(opp * 0xC2B2AE3D27D4EB4FL, 31);
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    //Applies one of the 8 symmetries of the board to a set of discs
+    //Bit 2 of the symmetry swaps rows and columns, bit 0 mirrors left to right and bit 1 flips top to bottom
+    public static long symmetry(long b, int sym){
+        if((sym & 4) != 0){
+            //Swaps rows and columns (reflects over the top left to bottom right diagonal)
+            long t = 0x0F0F0F0F00000000L & (b ^ (b << 28));
+            b ^= t ^ (t >>> 28);
+            t = 0x3333000033330000L & (b ^ (b << 14));
+            b ^= t ^ (t >>> 14);
+            t = 0x5500550055005500L & (b ^ (b << 7));
+            b ^= t ^ (t >>> 7);
+        }
+        if((sym & 1) != 0){
+            //Reverses the bits inside every row
+            b = ((b >>> 1) & 0x5555555555555555L) | ((b & 0x5555555555555555L) << 1);
+            b = ((b >>> 2) & 0x3333333333333333L) | ((b & 0x3333333333333333L) << 2);
+            b = ((b >>> 4) & 0x0F0F0F0F0F0F0F0FL) | ((b & 0x0F0F0F0F0F0F0F0FL) << 4);
+        }
+        if((sym & 2) != 0)
+            b = Long.reverseBytes(b);
+        return b;
+    }
+
+    //Where a square ends up under one of the 8 symmetries
+    public static int symmetrySquare(int square, int sym){
+        return Long.numberOfTrailingZeros(symmetry(1L << square, sym));
+    }
+
+    //Bit for the square at (r, c)
+    public static long bit(int r, int c){
+        return 1L << (r * 8 + c);
+    }
+
+    //Moves every disc one square in direction d (0-7, in the same order as the dr/dc tables the board used to scan with)
+    //Discs that would leave the board are dropped
+    static long shift(long b, int d){
+        switch(d){
+            case 0: return (b >>> 1) & NOT_RIGHT_COLUMN; //Left
+            case 1: return (b << 1) & NOT_LEFT_COLUMN;   //Right
+            case 2: return b >>> 8;                      //Up
+            case 3: return b << 8;                       //Down
+            case 4: return (b >>> 9) & NOT_RIGHT_COLUMN; //Up and left
+            case 5: return (b << 9) & NOT_LEFT_COLUMN;   //Down and right
+            case 6: return (b >>> 7) & NOT_LEFT_COLUMN;  //Up and right
+            default: return (b << 7) & NOT_RIGHT_COLUMN; //Down and left
+        }
+    }
+
+    //Every empty square where the player owning "own" would flip at least one of "opp"'s discs
+    //For each direction, grows a run of opponent discs out from our own discs, and an empty square right past the run is a move
+    public static long moves(long own, long opp){
+        long empty = ~(own | opp);
+        long result = 0;
+        for(int d = 0; d < 8; d++){
+            long run = shift(own, d) & opp;
+            //A run can be at most six discs long on an 8x8 board
+            run |= shift(run, d) & opp;
+            run |= shift(run, d) & opp;
+            run |= shift(run, d) & opp;
+            run |= shift(run, d) & opp;
+            run |= shift(run, d) & opp;
+            result |= shift(run, d) & empty;
+        }
+        return result;
+    }
+
+    //Opponent discs flipped when the player owning "own" plays on the square (0 if nothing would flip)
+    public static long flips(long own, long opp, int square){
+        long placed = 1L << square;
+        if(((own | opp) & placed) != 0) return 0;
+        long result = 0;
+        for(int d = 0; d < 8; d++){
+            long run = 0;
+            long next = shift(placed, d);
+            //Walks over opponent discs until it hits something else
+            while((next & opp) != 0){
+                run |= next;
+                next = shift(next, d);
+            }
+            //Only flips if the run is closed off by one of our own discs
+            if((next & own) != 0)
+                result |= run;
+        }
+        return result;
+    }
+}
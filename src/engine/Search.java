@@ -0,0 +1,323 @@
+package engine;
+
+//Negamax alpha-beta search over bitboards, used by the expert computer
+//Deepens one ply at a time until the time or node budget runs out, and keeps the best move of the last finished depth
+public class Search {
+
+    private static final int INFINITY = 1000000;
+    //Scores for finished games sit far outside anything the evaluation can return
+    private static final int WIN = 100000;
+
+    //Square groups, from the most to the least desirable, used for the evaluation and for move ordering
+    private static final long CORNERS = 0x8100000000000081L;
+    private static final long A_EDGES = 0x2400810000810024L;
+    private static final long B_EDGES = 0x1800008181000018L;
+    private static final long CENTER = 0x00003C3C3C3C0000L;
+    private static final long INNER_EDGES = 0x003C424242423C00L;
+    private static final long C_SQUARES = 0x4281000000008142L;
+    private static final long X_SQUARES = 0x0042000000004200L;
+    private static final long[] ORDER = {CORNERS, A_EDGES, B_EDGES, CENTER, INNER_EDGES, C_SQUARES, X_SQUARES};
+    private static final int[] WEIGHTS = {100, 10, 5, -1, -2, -20, -50};
+    private static final int MOBILITY_WEIGHT = 8;
+
+    //Budget for one search, 0 means no limit
+    private long timeLimit = 1000;
+    private long nodeLimit = 0;
+    private int maxDepth = 60;
+
+    //Remembers positions already searched, can be swapped for a bigger or shared one
+    //Made on the first search if none was given, so a search that gets a shared table never allocates one of its own
+    private TranspositionTable table;
+
+    //State of the search in progress
+    private long nodes;
+    //How often the table was looked in, and how often it had the position
+    private long tableProbes;
+    private long tableHits;
+    private long deadline;
+    private boolean stopped;
+    //Set from another thread to stop the search as soon as it next checks its limits
+    //It stays set until resume(), so a stop that comes just before a search starts isn't lost
+    private volatile boolean abort;
+
+    //Helpers in a parallel search share the main search's table and just fill it, starting at different depths
+    private boolean helper;
+    private int startDepth = 1;
+
+    //Results of the last search
+    private int bestMove = -1;
+    private int bestScore;
+    private int depthReached;
+
+    //Sets how many milliseconds a search may take (0 for no limit)
+    public void setTimeLimit(long millis){
+        timeLimit = millis;
+    }
+
+    //Sets how many nodes a search may visit (0 for no limit)
+    public void setNodeLimit(long limit){
+        nodeLimit = limit;
+    }
+
+    //Sets the deepest iteration the search will start
+    public void setMaxDepth(int depth){
+        maxDepth = depth;
+    }
+
+    //Replaces the transposition table, for example with one of a different size
+    public void setTable(TranspositionTable table){
+        this.table = table;
+    }
+
+    //Forgets every remembered position, for when a new game starts
+    public void clearTable(){
+        if(table != null)
+            table.clear();
+    }
+
+    //Makes this search a helper of a parallel search, with a number telling it apart from the other helpers
+    void setHelper(int id){
+        helper = true;
+        startDepth = 1 + (id & 1);
+    }
+
+    //Asks a running search to stop, it then returns the best move of the last depth it finished
+    //Every search after this stops straight away too, until resume() is called
+    public void stop(){
+        abort = true;
+    }
+
+    //Lets searches run again after stop()
+    public void resume(){
+        abort = false;
+    }
+
+    //Accessors for the results of the last search
+    public int getBestMove(){
+        return bestMove;
+    }
+
+    public int getBestScore(){
+        return bestScore;
+    }
+
+    public int getDepthReached(){
+        return depthReached;
+    }
+
+    public long getNodes(){
+        return nodes;
+    }
+
+    public long getTableProbes(){
+        return tableProbes;
+    }
+
+    public long getTableHits(){
+        return tableHits;
+    }
+
+    //Finds the best square for the given color to play, or -1 if they have no legal move
+    public int findBestMove(Position position, int color){
+        long own = position.discs(color);
+        long opp = position.discs(-color);
+        int side = Zobrist.side(color);
+        long hash = Zobrist.hash(position, color);
+        if(table == null)
+            table = new TranspositionTable(16);
+        if(!helper)
+            table.newSearch();
+        nodes = 0;
+        tableProbes = 0;
+        tableHits = 0;
+        stopped = false;
+        deadline = timeLimit > 0 ? System.nanoTime() + timeLimit * 1000000L : Long.MAX_VALUE;
+        bestMove = -1;
+        bestScore = 0;
+        depthReached = 0;
+
+        long moves = Position.moves(own, opp);
+        if(moves == 0)
+            return -1;
+        //Nothing to think about with only one choice
+        bestMove = Long.numberOfTrailingZeros(moves);
+        if(Long.bitCount(moves) == 1)
+            return bestMove;
+
+        int empties = 64 - Long.bitCount(own | opp);
+        for(int depth = startDepth; depth <= maxDepth; depth++){
+            //Shows up in a flight recording, only if one is running
+            SearchIterationEvent event = new SearchIterationEvent();
+            event.begin();
+            int previousBest = bestMove;
+            int move = -1;
+            int alpha = -INFINITY;
+            //Searches the best move of the last iteration first, so a cut-off iteration still tried it
+            int score = rootMove(own, opp, hash, side, previousBest, depth, alpha);
+            if(!stopped){
+                move = previousBest;
+                alpha = score;
+            }
+            long rest = moves & ~(1L << previousBest);
+            for(int g = 0; g < ORDER.length && !stopped; g++){
+                long group = rest & ORDER[g];
+                while(group != 0 && !stopped){
+                    int square = Long.numberOfTrailingZeros(group);
+                    group &= group - 1;
+                    score = rootMove(own, opp, hash, side, square, depth, alpha);
+                    if(!stopped && score > alpha){
+                        alpha = score;
+                        move = square;
+                    }
+                }
+            }
+            //An unfinished iteration can't be trusted, so the last finished one stands
+            if(stopped){
+                commitIteration(event, depth, -1, 0, empties, false);
+                break;
+            }
+            bestMove = move;
+            bestScore = alpha;
+            depthReached = depth;
+            table.store(hash, depth, TranspositionTable.EXACT, alpha, move);
+            commitIteration(event, depth, move, alpha, empties, true);
+            //Past this depth the whole game tree has been searched
+            if(depth >= empties)
+                break;
+        }
+        return bestMove;
+    }
+
+    private void commitIteration(SearchIterationEvent event, int depth, int move, int score, int empties, boolean finished){
+        if(!event.shouldCommit())
+            return;
+        event.depth = depth;
+        event.nodes = nodes;
+        event.score = score;
+        event.bestMove = move;
+        event.empties = empties;
+        event.finished = finished;
+        event.helper = helper;
+        event.commit();
+    }
+
+    //Score of playing one root move, searched to the given depth
+    private int rootMove(long own, long opp, long hash, int side, int square, int depth, int alpha){
+        long f = Position.flips(own, opp, square);
+        return -negamax(opp & ~f, own | f | (1L << square), Zobrist.play(hash, side, square, f), side ^ 1,
+                depth - 1, -INFINITY, -alpha, false);
+    }
+
+    //"hash" is the Zobrist hash of the position and "side" is the Zobrist index of the player owning "own"
+    private int negamax(long own, long opp, long hash, int side, int depth, int alpha, int beta, boolean passed){
+        nodes++;
+        if((nodes & 1023) == 0)
+            checkLimits();
+        if(stopped)
+            return 0;
+        if(depth <= 0)
+            return evaluate(own, opp);
+
+        //If this position was searched before, its result may settle things right away, otherwise its best move goes first
+        int ttMove = -1;
+        long entry = table.probe(hash);
+        tableProbes++;
+        if(entry != 0){
+            tableHits++;
+            ttMove = TranspositionTable.move(entry);
+            if(TranspositionTable.depth(entry) >= depth){
+                int ttScore = TranspositionTable.score(entry);
+                int bound = TranspositionTable.bound(entry);
+                if(bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER && ttScore >= beta)
+                        || (bound == TranspositionTable.UPPER && ttScore <= alpha))
+                    return ttScore;
+            }
+        }
+
+        long moves = Position.moves(own, opp);
+        if(moves == 0){
+            //Two passes in a row means nobody can move and the game is over
+            if(passed)
+                return finalScore(own, opp);
+            return -negamax(opp, own, hash ^ Zobrist.SIDE, side ^ 1, depth, -beta, -alpha, true);
+        }
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestSquare = -1;
+        if(ttMove >= 0 && ttMove < 64 && (moves & (1L << ttMove)) != 0){
+            long f = Position.flips(own, opp, ttMove);
+            best = -negamax(opp & ~f, own | f | (1L << ttMove), Zobrist.play(hash, side, ttMove, f), side ^ 1,
+                    depth - 1, -beta, -alpha, false);
+            bestSquare = ttMove;
+            if(best > alpha){
+                alpha = best;
+                if(alpha >= beta){
+                    store(hash, depth, best, originalAlpha, beta, bestSquare);
+                    return best;
+                }
+            }
+            moves &= ~(1L << ttMove);
+        }
+        for(int g = 0; g < ORDER.length; g++){
+            long group = moves & ORDER[g];
+            while(group != 0){
+                int square = Long.numberOfTrailingZeros(group);
+                group &= group - 1;
+                long f = Position.flips(own, opp, square);
+                int score = -negamax(opp & ~f, own | f | (1L << square), Zobrist.play(hash, side, square, f), side ^ 1,
+                        depth - 1, -beta, -alpha, false);
+                if(score > best){
+                    best = score;
+                    bestSquare = square;
+                    if(score > alpha){
+                        alpha = score;
+                        if(alpha >= beta){
+                            store(hash, depth, best, originalAlpha, beta, bestSquare);
+                            return best;
+                        }
+                    }
+                }
+            }
+        }
+        store(hash, depth, best, originalAlpha, beta, bestSquare);
+        return best;
+    }
+
+    //Remembers the result of a node, unless the search was cut short and the result is meaningless
+    private void store(long hash, int depth, int score, int alpha, int beta, int move){
+        if(stopped)
+            return;
+        int bound = score <= alpha ? TranspositionTable.UPPER : score >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+        table.store(hash, depth, bound, score, move);
+    }
+
+    //Static guess of how good the position is for the player owning "own"
+    //Weighs discs by the kind of square they sit on, plus how many more moves we have than the opponent
+    private int evaluate(long own, long opp){
+        int score = 0;
+        for(int g = 0; g < ORDER.length; g++)
+            score += WEIGHTS[g] * (Long.bitCount(own & ORDER[g]) - Long.bitCount(opp & ORDER[g]));
+        score += MOBILITY_WEIGHT * (Long.bitCount(Position.moves(own, opp)) - Long.bitCount(Position.moves(opp, own)));
+        return score;
+    }
+
+    //Exact score of a finished game, a win is always better than any unfinished position
+    private int finalScore(long own, long opp){
+        int diff = Long.bitCount(own) - Long.bitCount(opp);
+        if(diff > 0) return WIN + diff;
+        if(diff < 0) return -WIN + diff;
+        return 0;
+    }
+
+    //Stops the search once it has used up its time or nodes
+    private void checkLimits(){
+        if(abort)
+            stopped = true;
+        else if(nodeLimit > 0 && nodes >= nodeLimit)
+            stopped = true;
+        else if(System.nanoTime() >= deadline)
+            stopped = true;
+    }
+}
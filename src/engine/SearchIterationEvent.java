@@ -0,0 +1,44 @@
+package engine;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+//Flight recorder event for one depth of the alpha-beta search, from starting the depth to finishing (or giving up on) it
+//Like every event here it's only filled in and kept while a recording with it turned on is running, so otherwise it costs nothing.
+//Record with: jcmd <pid> JFR.start duration=60s filename=othello.jfr
+@Name("othello.SearchIteration")
+@Label("Search Iteration")
+@Category({"Othello", "Engine"})
+@Description("One depth of the iterative deepening search")
+@StackTrace(false)
+public class SearchIterationEvent extends Event {
+
+    @Label("Depth")
+    int depth;
+
+    @Label("Nodes")
+    @Description("Positions searched so far in this search, all depths up to this one")
+    long nodes;
+
+    @Label("Score")
+    int score;
+
+    @Label("Best Move")
+    @Description("Square (r * 8 + c) the search liked best after this depth, -1 if it didn't finish")
+    int bestMove;
+
+    @Label("Empties")
+    int empties;
+
+    @Label("Finished")
+    @Description("False if the search ran out of time or was stopped during this depth")
+    boolean finished;
+
+    @Label("Helper")
+    @Description("True for the helper threads of a parallel search")
+    boolean helper;
+}
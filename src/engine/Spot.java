@@ -0,0 +1,33 @@
+package engine;
+
+//Represents a location on the board (r, c) on a 0-index
+//There are only 64 of them, made once and shared, so asking for a spot never creates a new object
+public class Spot {
+    private static final Spot[] SPOTS = new Spot[64];
+
+    static {
+        for (int s = 0; s < 64; s++)
+            SPOTS[s] = new Spot(s / 8, s % 8);
+    }
+
+    public final int r, c;
+
+    private Spot (int rr, int cc) {
+        this.r = rr;
+        this.c = cc;
+    }
+
+    //The spot for a square index (r * 8 + c)
+    public static Spot of(int square) {
+        return SPOTS[square];
+    }
+
+    public static Spot of(int r, int c) {
+        return SPOTS[r * 8 + c];
+    }
+
+    //Square index of this spot (r * 8 + c)
+    public int square() {
+        return r * 8 + c;
+    }
+}
@@ -0,0 +1,196 @@
+package engine;
+
+import enums.Difficulty;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//Plays many games between two computers without the window, spread over every core, and reports how they did
+//Every game is seeded from its number, so the same command always plays the same games (as long as the computers are
+//limited by nodes rather than time). Each game starts with a few random moves, and the two sides swap colors every game.
+//
+//Usage: Tournament <games> <difficultyA> <difficultyB> [--threads n] [--seed s] [--random-plies n] [--nodes n]
+//                  [--time ms] [--playouts n] [--clock control] [--hash mb] [--record file]
+//A clock is "total+increment" or "time/move" in milliseconds (see GameClock). On a clock the computers think for as long as
+//the time manager gives them instead of --time, and a computer that runs out of time loses the game.
+public class Tournament {
+
+    private final int games;
+    private final Difficulty engineA;
+    private final Difficulty engineB;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private long seed = 1;
+    private int randomPlies = 4;
+    //Budget for each expert move, nodes by default so games can be repeated exactly
+    private long nodeLimit = 20000;
+    private long timeLimit = 0;
+    //Random games the Monte Carlo computer plays out for each move
+    private long playoutLimit = 2000;
+    //Time control every game is played with, untimed unless one was given
+    private GameClock clock = GameClock.untimed();
+    private int hashMegabytes = 4;
+    //Every finished game is added to this game record file, if one was given
+    private GameRecordWriter recorder;
+
+    //Totals for engine A, collected from every worker when they finish
+    private int wins;
+    private int draws;
+    private int losses;
+    private long movesA;
+    private long movesB;
+    private long nanosA;
+    private long nanosB;
+    private long timeLossesA;
+    private long timeLossesB;
+
+    public Tournament(int games, Difficulty engineA, Difficulty engineB){
+        this.games = games;
+        this.engineA = engineA;
+        this.engineB = engineB;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if(args.length < 3){
+            System.out.println("Usage: Tournament <games> <difficultyA> <difficultyB> [--threads n] [--seed s] [--random-plies n] [--nodes n] [--time ms] [--playouts n] [--clock control] [--hash mb] [--record file]");
+            return;
+        }
+        Tournament t = new Tournament(Integer.parseInt(args[0]), Difficulty.valueOf(args[1].toUpperCase()), Difficulty.valueOf(args[2].toUpperCase()));
+        for(int i = 3; i + 1 < args.length; i += 2){
+            String value = args[i + 1];
+            switch(args[i]){
+                case "--threads": t.threads = Integer.parseInt(value); break;
+                case "--seed": t.seed = Long.parseLong(value); break;
+                case "--random-plies": t.randomPlies = Integer.parseInt(value); break;
+                case "--nodes": t.nodeLimit = Long.parseLong(value); break;
+                case "--time": t.timeLimit = Long.parseLong(value); break;
+                case "--playouts": t.playoutLimit = Long.parseLong(value); break;
+                case "--clock": t.clock = GameClock.parse(value); break;
+                case "--hash": t.hashMegabytes = Integer.parseInt(value); break;
+                case "--record": t.recorder = new GameRecordWriter(value); break;
+                default: System.out.println("Unknown option " + args[i]);
+            }
+        }
+        t.run();
+        if(t.recorder != null)
+            t.recorder.close();
+    }
+
+    //Plays every game and prints the results
+    public void run() throws Exception {
+        long start = System.nanoTime();
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<long[]>> results = new ArrayList<>();
+        //Each worker keeps its own two computers and takes game numbers until there are none left
+        for(int w = 0; w < threads; w++)
+            results.add(pool.submit(() -> playGames(next)));
+        for(Future<long[]> f : results){
+            long[] r = f.get();
+            wins += r[0];
+            draws += r[1];
+            losses += r[2];
+            movesA += r[3];
+            movesB += r[4];
+            nanosA += r[5];
+            nanosB += r[6];
+            timeLossesA += r[7];
+            timeLossesB += r[8];
+        }
+        pool.shutdown();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%s vs %s, %d games on %d threads%n", engineA, engineB, games, threads);
+        System.out.printf("%s: %d wins, %d draws, %d losses (%.1f%%)%n", engineA, wins, draws, losses,
+                100.0 * (wins + 0.5 * draws) / Math.max(1, games));
+        System.out.printf("%.1f games/s, mean move time %s %.3f ms, %s %.3f ms%n", games / seconds,
+                engineA, nanosA / 1e6 / Math.max(1, movesA), engineB, nanosB / 1e6 / Math.max(1, movesB));
+        if(clock.isTimed())
+            System.out.printf("Lost on time: %s %d, %s %d%n", engineA, timeLossesA, engineB, timeLossesB);
+        //Move times and search statistics, from the same metrics jconsole sees
+        System.out.println(EngineMetrics.of(engineA));
+        if(engineB != engineA)
+            System.out.println(EngineMetrics.of(engineB));
+    }
+
+    //Plays games until all have been taken, returns this worker's
+    //{wins, draws, losses, moves A, moves B, nanos A, nanos B, time losses A, time losses B}
+    private long[] playGames(AtomicInteger next) throws IOException {
+        Computer a = createComputer(engineA);
+        Computer b = createComputer(engineB);
+        long[] totals = new long[9];
+        int game;
+        while((game = next.getAndIncrement()) < games){
+            Random random = new Random(seed * 1000003 + game);
+            a.setRandom(new Random(random.nextLong()));
+            b.setRandom(new Random(random.nextLong()));
+            a.newGame();
+            b.newGame();
+            //A moves first in even games and second in odd ones
+            int colorA = game % 2 == 0 ? Position.WHITE : Position.BLACK;
+            a.setColor(colorA);
+            b.setColor(-colorA);
+
+            Game match = new Game();
+            //The clocks only start once the random opening moves are done
+            GameClock gameClock = clock.copy();
+            int flagged = 0;
+            int ply = 0;
+            while(!match.isOver()){
+                if(match.mustPass()){
+                    match.pass();
+                    continue;
+                }
+                int color = match.getToMove();
+                int square;
+                if(ply < randomPlies){
+                    long moves = match.legalMoves();
+                    for(int skip = random.nextInt(Long.bitCount(moves)); skip > 0; skip--)
+                        moves &= moves - 1;
+                    square = Long.numberOfTrailingZeros(moves);
+                } else {
+                    boolean isA = color == colorA;
+                    gameClock.start(color);
+                    long moveStart = System.nanoTime();
+                    Spot s = (isA ? a : b).findMove(match, gameClock);
+                    long moveEnd = System.nanoTime();
+                    gameClock.press(moveEnd);
+                    totals[isA ? 3 : 4]++;
+                    totals[isA ? 5 : 6] += moveEnd - moveStart;
+                    if(gameClock.isFlagged(color)){
+                        flagged = color;
+                        totals[isA ? 7 : 8]++;
+                        break;
+                    }
+                    square = s.square();
+                }
+                match.play(square);
+                ply++;
+            }
+            //A game lost on time isn't saved, the discs on the board don't say who won it
+            if(recorder != null && flagged == 0){
+                Difficulty white = colorA == Position.WHITE ? engineA : engineB;
+                Difficulty black = colorA == Position.WHITE ? engineB : engineA;
+                recorder.append(GameRecord.fromGame(match, white, black, randomPlies, nodeLimit, timeLimit));
+            }
+            int diff = flagged != 0 ? (flagged == colorA ? -1 : 1) : match.getResult(colorA);
+            totals[diff > 0 ? 0 : diff == 0 ? 1 : 2]++;
+        }
+        return totals;
+    }
+
+    private Computer createComputer(Difficulty difficulty){
+        Computer c = new Computer(Position.WHITE, difficulty);
+        c.setHashSize(hashMegabytes);
+        c.setNodeLimit(nodeLimit);
+        c.setTimeLimit(timeLimit);
+        c.setPlayoutLimit(playoutLimit);
+        //Games are already spread over the cores, so each computer thinks on its own worker's thread
+        c.setSearchThreads(1);
+        return c;
+    }
+}
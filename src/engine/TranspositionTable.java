@@ -0,0 +1,107 @@
+package engine;
+
+//Fixed-size table of search results, keyed by Zobrist hash, so positions reached through different move orders aren't searched twice
+//Entries are packed into two preallocated long arrays, so probing and storing never allocate anything
+//Several searches can share one table without locks: the key is stored XORed with the data, so an entry
+//torn by two threads writing at once no longer matches its hash and just reads as a miss
+public class TranspositionTable {
+
+    //What the stored score means: exactly the score, at least the score (beta cut-off) or at most the score (nothing beat alpha)
+    public static final int EXACT = 3;
+    public static final int LOWER = 1;
+    public static final int UPPER = 2;
+    //Stored in place of a move when the entry has no best move
+    public static final int NO_MOVE = 127;
+
+    //Each entry is a key and a packed data word (16 bytes), and entries come in buckets of two
+    private static final int ENTRY_BYTES = 16;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+    //Goes up by one for every search, so entries from older searches are replaced first
+    private int age;
+
+    //Creates a table using about the given number of megabytes (rounded down to a power of two number of entries)
+    public TranspositionTable(int megabytes){
+        long entries = Math.max(2, (long) megabytes * 1024 * 1024 / ENTRY_BYTES);
+        int size = Integer.highestOneBit((int) Math.min(entries, 1 << 30));
+        keys = new long[size];
+        data = new long[size];
+        mask = size - 1;
+    }
+
+    //Called at the start of every search
+    public void newSearch(){
+        age = (age + 1) & 0xFF;
+    }
+
+    //Empties the table, for example when a new game starts
+    public void clear(){
+        java.util.Arrays.fill(keys, 0);
+        java.util.Arrays.fill(data, 0);
+        age = 0;
+    }
+
+    //Returns the packed entry for the hash, or 0 if there isn't one
+    public long probe(long hash){
+        int i = (int) hash & mask & ~1;
+        long d = data[i];
+        if(d != 0 && (keys[i] ^ d) == hash) return d;
+        d = data[i + 1];
+        if(d != 0 && (keys[i + 1] ^ d) == hash) return d;
+        return 0;
+    }
+
+    //Stores a search result, replacing whichever entry of the bucket is from the oldest search or was searched least deeply
+    public void store(long hash, int depth, int bound, int score, int move){
+        int i = (int) hash & mask & ~1;
+        int slot;
+        if((keys[i] ^ data[i]) == hash) slot = i;
+        else if((keys[i + 1] ^ data[i + 1]) == hash) slot = i + 1;
+        else slot = worth(i) <= worth(i + 1) ? i : i + 1;
+        long old = data[slot];
+        //A shallower result of the same position from this search doesn't throw away a deeper one, unless it is exact
+        if((keys[slot] ^ old) == hash && age(old) == age && depth(old) > depth && bound != EXACT)
+            return;
+        long d = pack(depth, bound, score, move < 0 ? NO_MOVE : move, age);
+        keys[slot] = hash ^ d;
+        data[slot] = d;
+    }
+
+    //How much an entry is worth keeping: entries from this search beat older ones, then deeper beats shallower
+    private int worth(int i){
+        long d = data[i];
+        if(d == 0) return -1;
+        return (age(d) == age ? 256 : 0) + depth(d);
+    }
+
+    private static long pack(int depth, int bound, int score, int move, int age){
+        return (score & 0xFFFFFFFFL)
+                | ((long) move << 32)
+                | ((long) bound << 39)
+                | ((long) (depth & 0xFF) << 41)
+                | ((long) age << 49);
+    }
+
+    //Unpacks the fields of an entry returned by probe()
+    public static int score(long entry){
+        return (int) entry;
+    }
+
+    public static int move(long entry){
+        return (int) (entry >>> 32) & 0x7F;
+    }
+
+    public static int bound(long entry){
+        return (int) (entry >>> 39) & 0x3;
+    }
+
+    public static int depth(long entry){
+        return (int) (entry >>> 41) & 0xFF;
+    }
+
+    private static int age(long entry){
+        return (int) (entry >>> 49) & 0xFF;
+    }
+}
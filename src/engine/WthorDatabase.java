@@ -0,0 +1,305 @@
+package engine;
+
+import enums.Difficulty;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+//Games read from WTHOR archives (.wtb files, the standard public database of tournament Othello games), with an index
+//of every position reached in them, so "which games went through this position, and how did they end" is a binary search.
+//
+//A .wtb file is a 16 byte header (the number of games is the little endian int at byte 4) followed by 68 bytes per game:
+//  short tournament, short black player, short white player, byte black discs at the end, byte theoretical score,
+//  then 60 moves as 10 * row + column (both counting from 1), 0 once the game is over
+//WTHOR's black moves first from the standard start, which is this game's white: the starting discs here are the standard
+//ones with the colors swapped. Passes aren't stored, a player with no move just gets skipped while replaying.
+//
+//Usage: WthorDatabase <file.wtb>... [--record out] [--query <64 character board> <X|O>]
+public class WthorDatabase {
+
+    private static final int HEADER_BYTES = 16;
+    private static final int GAME_BYTES = 68;
+
+    //Each index entry is the top bits of a position's key with the game number in the bottom bits
+    private static final int GAME_BITS = 26;
+    private static final long GAME_MASK = (1L << GAME_BITS) - 1;
+    //Longest array Java will make (some JVMs keep a few words of header in it)
+    private static final int MAX_ARRAY = Integer.MAX_VALUE - 8;
+    //Most games that fit: the game number has to fit in GAME_BITS, and every game takes 60 bytes of moves and up to 61
+    //index entries, so the arrays fill up before the game numbers run out
+    public static final int MAX_GAMES = Math.min(1 << GAME_BITS, MAX_ARRAY / 61);
+
+    //Every accepted game: its moves as squares (r * 8 + c, 60 bytes a game, -1 after the end), and how it finished
+    private byte[] moves = new byte[60 * 1024];
+    private byte[] firstMoverDiscs = new byte[1024];
+    private byte[] secondMoverDiscs = new byte[1024];
+    private int[] players = new int[1024];
+    private int games = 0;
+    private int rejected = 0;
+
+    //Sorted index of every position reached in every game
+    private long[] index = new long[0];
+
+    public static void main(String[] args) throws IOException {
+        if(args.length == 0){
+            System.out.println("Usage: WthorDatabase <file.wtb>... [--record out] [--query <64 character board> <X|O>]");
+            return;
+        }
+        WthorDatabase db = new WthorDatabase();
+        String recordPath = null;
+        Position query = null;
+        int queryColor = Position.WHITE;
+        long start = System.nanoTime();
+        for(int i = 0; i < args.length; i++){
+            if(args[i].equals("--record")){
+                recordPath = args[++i];
+            } else if(args[i].equals("--query")){
+                query = Position.parse(args[++i]);
+                queryColor = Position.parseColor(args[++i].charAt(0));
+            } else {
+                db.read(args[i]);
+            }
+        }
+        long read = System.nanoTime();
+        db.buildIndex();
+        long indexed = System.nanoTime();
+        System.out.printf("Read %d games (%d rejected as illegal) in %d ms, indexed %d positions in %d ms%n", db.size(),
+                db.getRejected(), (read - start) / 1000000, db.index.length, (indexed - read) / 1000000);
+
+        if(recordPath != null){
+            try(GameRecordWriter writer = new GameRecordWriter(recordPath)){
+                for(int g = 0; g < db.size(); g++)
+                    writer.append(db.toRecord(g));
+            }
+            System.out.println("Wrote " + db.size() + " games to " + recordPath);
+        }
+        if(query != null){
+            long queryStart = System.nanoTime();
+            int[] found = db.gamesThrough(query, queryColor);
+            long took = System.nanoTime() - queryStart;
+            //Results for whoever is to move in the query position
+            int wins = 0, draws = 0, losses = 0;
+            for(int g : found){
+                int diff = db.getDiscs(g, queryColor) - db.getDiscs(g, -queryColor);
+                if(diff > 0) wins++;
+                else if(diff == 0) draws++;
+                else losses++;
+            }
+            System.out.printf("%d games through the position (%.3f ms): %d wins, %d draws, %d losses for the player to move%n",
+                    found.length, took / 1e6, wins, draws, losses);
+        }
+    }
+
+    //Reads every game in a .wtb file, keeping the ones that replay legally
+    public void read(String path) throws IOException {
+        try(DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(path), 1 << 16))){
+            byte[] header = new byte[HEADER_BYTES];
+            in.readFully(header);
+            int count = ByteBuffer.wrap(header).order(ByteOrder.LITTLE_ENDIAN).getInt(4);
+            byte[] game = new byte[GAME_BYTES];
+            ByteBuffer fields = ByteBuffer.wrap(game).order(ByteOrder.LITTLE_ENDIAN);
+            for(int i = 0; i < count; i++){
+                try {
+                    in.readFully(game);
+                } catch (EOFException e){
+                    break;
+                }
+                addGame(fields.getShort(2) & 0xFFFF, fields.getShort(4) & 0xFFFF, game);
+            }
+        }
+    }
+
+    //Replays one WTHOR game with the normal rules, and stores it if every move was legal
+    private void addGame(int firstMover, int secondMover, byte[] game){
+        if(games == MAX_GAMES)
+            throw new IllegalStateException("More than " + MAX_GAMES + " games");
+        if(games == firstMoverDiscs.length){
+            //Worked out in long, doubling past MAX_GAMES would overflow an int
+            int capacity = (int) Math.min((long) games * 2, MAX_GAMES);
+            moves = Arrays.copyOf(moves, capacity * 60);
+            firstMoverDiscs = Arrays.copyOf(firstMoverDiscs, capacity);
+            secondMoverDiscs = Arrays.copyOf(secondMoverDiscs, capacity);
+            players = Arrays.copyOf(players, capacity);
+        }
+        Position position = new Position();
+        int color = Position.WHITE;
+        int base = games * 60;
+        for(int ply = 0; ply < 60; ply++){
+            int move = game[8 + ply];
+            int row = move / 10 - 1;
+            int col = move % 10 - 1;
+            if(move == 0 || row < 0 || row > 7 || col < 0 || col > 7){
+                Arrays.fill(moves, base + ply, base + 60, (byte) -1);
+                break;
+            }
+            //A player who can't move passes, and it's the same player's turn to play this move
+            if(position.legalMoves(color) == 0)
+                color = -color;
+            if(position.play(color, row * 8 + col) == 0){
+                rejected++;
+                return;
+            }
+            moves[base + ply] = (byte) (row * 8 + col);
+            color = -color;
+        }
+        firstMoverDiscs[games] = (byte) position.count(Position.WHITE);
+        secondMoverDiscs[games] = (byte) position.count(Position.BLACK);
+        players[games] = firstMover << 16 | secondMover;
+        games++;
+    }
+
+    //Sorts every position of every game into the index, call once all files have been read
+    public void buildIndex(){
+        //Can't overflow, MAX_GAMES keeps this under the largest array
+        long[] entries = new long[games * 61];
+        int n = 0;
+        for(int g = 0; g < games; g++){
+            Position position = new Position();
+            int color = Position.WHITE;
+            entries[n++] = entry(position, color, g);
+            for(int ply = 0; ply < 60; ply++){
+                int square = moves[g * 60 + ply];
+                if(square < 0)
+                    break;
+                if(position.legalMoves(color) == 0)
+                    color = -color;
+                position.play(color, square);
+                color = -color;
+                //The index is for the player who will actually move next
+                if(position.legalMoves(color) == 0 && position.legalMoves(-color) != 0)
+                    color = -color;
+                entries[n++] = entry(position, color, g);
+            }
+        }
+        index = Arrays.copyOf(entries, n);
+        Arrays.parallelSort(index);
+    }
+
+    //Key of a position is folded over the board's 8 symmetries, the same way the opening book does it
+    private static long key(long own, long opp){
+        int sym = OpeningBook.canonicalSymmetry(own, opp);
+        return Position.hash(Position.symmetry(own, sym), Position.symmetry(opp, sym));
+    }
+
+    private static long entry(Position position, int color, int game){
+        return key(position.discs(color), position.discs(-color)) & ~GAME_MASK | game;
+    }
+
+    //Every game that went through the given position (or any reflection of it) with the given color to move
+    //Index entries only hold part of the key, so each game found is replayed to make sure it really reached the position
+    public int[] gamesThrough(Position position, int color){
+        long own = position.discs(color);
+        long opp = position.discs(-color);
+        long prefix = key(own, opp) & ~GAME_MASK;
+        int first = lowerBound(prefix);
+        int[] found = new int[0];
+        int count = 0;
+        int plies = Long.bitCount(own | opp) - 4;
+        for(int i = first; i < index.length && (index[i] & ~GAME_MASK) == prefix; i++){
+            int game = (int) (index[i] & GAME_MASK);
+            if(!reaches(game, plies, own, opp, color))
+                continue;
+            if(count == found.length)
+                found = Arrays.copyOf(found, Math.max(16, count * 2));
+            found[count++] = game;
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    //First index entry at or after the given value
+    private int lowerBound(long value){
+        int low = 0;
+        int high = index.length;
+        while(low < high){
+            int mid = (low + high) >>> 1;
+            if(index[mid] < value)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    //Whether the game, after the given number of moves, has a reflection of the position with the same player to move
+    private boolean reaches(int game, int plies, long own, long opp, int color){
+        Position position = new Position();
+        int toMove = Position.WHITE;
+        for(int ply = 0; ply < plies; ply++){
+            int square = moves[game * 60 + ply];
+            if(square < 0)
+                return false;
+            if(position.legalMoves(toMove) == 0)
+                toMove = -toMove;
+            position.play(toMove, square);
+            toMove = -toMove;
+        }
+        if(position.legalMoves(toMove) == 0 && position.legalMoves(-toMove) != 0)
+            toMove = -toMove;
+        if(toMove != color)
+            return false;
+        for(int sym = 0; sym < 8; sym++){
+            if(Position.symmetry(position.discs(color), sym) == own && Position.symmetry(position.discs(-color), sym) == opp)
+                return true;
+        }
+        return false;
+    }
+
+    //Number of games read and kept
+    public int size(){
+        return games;
+    }
+
+    //Number of games thrown out because they had an illegal move
+    public int getRejected(){
+        return rejected;
+    }
+
+    //Discs the given color had at the end of a game
+    public int getDiscs(int game, int color){
+        return color == Position.WHITE ? firstMoverDiscs[game] : secondMoverDiscs[game];
+    }
+
+    //WTHOR player numbers, for the first and second mover
+    public int getFirstMover(int game){
+        return players[game] >>> 16;
+    }
+
+    public int getSecondMover(int game){
+        return players[game] & 0xFFFF;
+    }
+
+    //Squares played in a game, in order
+    public int[] getMoves(int game){
+        int length = 0;
+        while(length < 60 && moves[game * 60 + length] >= 0)
+            length++;
+        int[] squares = new int[length];
+        for(int i = 0; i < length; i++)
+            squares[i] = moves[game * 60 + i];
+        return squares;
+    }
+
+    //The game as a game record, with the passes put back in (both sides were people, so they're stored as NONE)
+    public GameRecord toRecord(int game){
+        byte[] plies = new byte[GameRecord.MAX_PLIES];
+        int count = 0;
+        Position position = new Position();
+        int color = Position.WHITE;
+        for(int square : getMoves(game)){
+            if(position.legalMoves(color) == 0){
+                plies[count++] = GameRecord.PASS;
+                color = -color;
+            }
+            position.play(color, square);
+            plies[count++] = (byte) square;
+            color = -color;
+        }
+        return new GameRecord(Arrays.copyOf(plies, count), Difficulty.NONE, Difficulty.NONE, firstMoverDiscs[game],
+                secondMoverDiscs[game], 0, 0, 0);
+    }
+}
@@ -0,0 +1,58 @@
+package engine;
+
+import java.util.Random;
+
+//Random keys for hashing a position, so the same discs and side to move always give the same 64-bit key
+//Keys are XORed together, which lets a move update the hash instead of rehashing the whole board
+public class Zobrist {
+
+    //Key for a disc of each color (0 is black, 1 is white) on each square
+    static final long[][] PIECE = new long[2][64];
+    //Key to XOR in when a disc changes color, the same for both directions of the flip
+    static final long[] FLIP = new long[64];
+    //Key that is XORed in when white is the side to move
+    static final long SIDE;
+
+    static {
+        //Fixed seed so hashes are the same from one run to the next
+        Random random = new Random(0x0DE110L);
+        for(int s = 0; s < 64; s++){
+            PIECE[0][s] = random.nextLong();
+            PIECE[1][s] = random.nextLong();
+            FLIP[s] = PIECE[0][s] ^ PIECE[1][s];
+        }
+        SIDE = random.nextLong();
+    }
+
+    //Index into PIECE for a color (-1 is black, 1 is white)
+    static int side(int color){
+        return color == Position.BLACK ? 0 : 1;
+    }
+
+    //Hashes a whole position from scratch, with the given color to move
+    public static long hash(Position position, int color){
+        long h = 0;
+        long b = position.getBlack();
+        while(b != 0){
+            h ^= PIECE[0][Long.numberOfTrailingZeros(b)];
+            b &= b - 1;
+        }
+        long w = position.getWhite();
+        while(w != 0){
+            h ^= PIECE[1][Long.numberOfTrailingZeros(w)];
+            w &= w - 1;
+        }
+        return color == Position.WHITE ? h ^ SIDE : h;
+    }
+
+    //Hash after the side at index "side" plays on the square and flips the given discs
+    //Also passes the turn to the other side
+    static long play(long hash, int side, int square, long flips){
+        hash ^= PIECE[side][square] ^ SIDE;
+        while(flips != 0){
+            hash ^= FLIP[Long.numberOfTrailingZeros(flips)];
+            flips &= flips - 1;
+        }
+        return hash;
+    }
+}
@@ -4,5 +4,7 @@ public enum Difficulty {
     NONE,//For PVP
     EASY,
     MEDIUM,
-    HARD
+    HARD,
+    EXPERT, //Searches several moves ahead
+    MONTE_CARLO //Plays lots of quick random games from each move and picks the one that wins most
 }
\ No newline at end of file